@@ -2,6 +2,19 @@ plugins {
     alias(libs.plugins.android.application)
 }
 
+// Таблицы шансов строятся при сборке генератором из :tools и попадают в assets
+val equityTool: Configuration by configurations.creating
+val equityAssetsDir = layout.buildDirectory.dir("generated/equityAssets")
+
+val generateEquityTables by tasks.registering(JavaExec::class) {
+    classpath = equityTool
+    mainClass.set("fun.adun.pokerapp.EquityTableGenerator")
+    args(equityAssetsDir.get().asFile.absolutePath)
+    inputs.files(equityTool)
+    outputs.dir(equityAssetsDir)
+    maxHeapSize = "1g"
+}
+
 android {
     namespace = "fun.adun.pokerapp"
     compileSdk = 35
@@ -29,14 +42,31 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+    sourceSets {
+        getByName("main") {
+            assets.srcDir(equityAssetsDir)
+        }
+    }
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+        }
+    }
 }
 
 dependencies {
+    equityTool(project(":tools"))
+    implementation(project(":core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
-}
\ No newline at end of file
+}
+
+tasks.named("preBuild") {
+    dependsOn(generateEquityTables)
+}
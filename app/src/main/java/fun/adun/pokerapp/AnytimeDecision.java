@@ -0,0 +1,126 @@
+package fun.adun.pokerapp;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Решение компьютера, которое можно принять в любой момент.
+// Пока на экране «Компьютер думает...», в фоне методом Монте-Карло уточняются шансы
+// его руки против случайной руки соперника. Расчёт идёт не дольше бюджета уровня
+// сложности, а в срок берётся лучшая на этот момент оценка.
+class AnytimeDecision {
+
+    static final class Estimate {
+        // Сколько рук соперника разыграно
+        final long iterations;
+        final long elapsedNanos;
+        final double equity;
+        // Стандартная ошибка оценки шансов
+        final double standardError;
+
+        Estimate(long iterations, long elapsedNanos, double sum, double sumOfSquares) {
+            this.iterations = iterations;
+            this.elapsedNanos = elapsedNanos;
+            this.equity = sum / iterations;
+            double variance = Math.max(0, sumOfSquares / iterations - equity * equity);
+            this.standardError = Math.sqrt(variance / iterations);
+        }
+    }
+
+    // Оценка публикуется после каждой пачки раздач
+    static final int BATCH_SIZE = 256;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private Search currentSearch;
+
+    // Начинает расчёт для руки компьютера; предыдущий расчёт отменяется
+    void start(long handMask, long budgetMs) {
+        cancel();
+        currentSearch = new Search(handMask, budgetMs);
+        currentSearch.future = executor.submit(currentSearch);
+    }
+
+    // Останавливает расчёт и возвращает последнюю оценку; null, если не разыграно ни одной раздачи
+    Estimate commit() {
+        Search search = currentSearch;
+        cancel();
+        return search == null ? null : search.estimate;
+    }
+
+    // Последняя оценка текущего расчёта без его остановки; null, если расчёта нет
+    // или не разыграно ни одной раздачи
+    Estimate peek() {
+        Search search = currentSearch;
+        return search == null ? null : search.estimate;
+    }
+
+    // Текущий расчёт прерывается отменой, остальные задачи потока не трогаются
+    void shutdown() {
+        cancel();
+        executor.shutdown();
+    }
+
+    private void cancel() {
+        if (currentSearch != null) {
+            currentSearch.future.cancel(true);
+            currentSearch = null;
+        }
+    }
+
+    // У каждого расчёта своя оценка, чтобы отменённый расчёт не подменил результат нового
+    private static final class Search implements Runnable {
+        private final long handMask;
+        private final long budgetMs;
+        private volatile Estimate estimate;
+        private Future<?> future;
+
+        Search(long handMask, long budgetMs) {
+            this.handMask = handMask;
+            this.budgetMs = budgetMs;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            long deadline = start + budgetMs * 1000000L;
+
+            int[] hand = new int[5];
+            int[] deck = new int[47];
+            int handSize = 0;
+            int deckSize = 0;
+            for (int card = 0; card < 52; card++) {
+                if ((handMask & (1L << card)) != 0) {
+                    hand[handSize++] = card;
+                } else {
+                    deck[deckSize++] = card;
+                }
+            }
+            int score = HandEvaluator.score(hand);
+
+            SplittableRandom random = new SplittableRandom();
+            long iterations = 0;
+            double sum = 0;
+            double sumOfSquares = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    // Первые пять карт перемешанной колоды — рука соперника
+                    for (int j = 0; j < 5; j++) {
+                        int k = j + random.nextInt(deck.length - j);
+                        int card = deck[k];
+                        deck[k] = deck[j];
+                        deck[j] = card;
+                    }
+                    int opponentScore = HandEvaluator.score(deck[0], deck[1], deck[2], deck[3], deck[4]);
+                    double value = score > opponentScore ? 1 : score == opponentScore ? 0.5 : 0;
+                    sum += value;
+                    sumOfSquares += value * value;
+                }
+                iterations += BATCH_SIZE;
+                long now = System.nanoTime();
+                estimate = new Estimate(iterations, now - start, sum, sumOfSquares);
+                if (now >= deadline) break;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package fun.adun.pokerapp;
+
+import android.content.Context;
+
+// Общее для экранов с картами: картинка карты по cardId и размеры в dp
+final class CardViews {
+
+    private CardViews() {
+    }
+
+    static int dpToPx(Context context, int dp) {
+        return (int) (dp * context.getResources().getDisplayMetrics().density);
+    }
+
+    // cardId = масть * 13 + ранг; для номера вне колоды — рубашка
+    static int getCardResource(Context context, int cardId) {
+        String suit;
+        String rank;
+
+        switch (cardId / 13) {
+            case 0: suit = "h"; break;
+            case 1: suit = "d"; break;
+            case 2: suit = "c"; break;
+            case 3: suit = "s"; break;
+            default: return R.drawable.card_back;
+        }
+
+        int rankValue = (cardId % 13) + 1;
+        switch (rankValue) {
+            case 1: rank = "a"; break;
+            case 11: rank = "j"; break;
+            case 12: rank = "q"; break;
+            case 13: rank = "k"; break;
+            default: rank = String.valueOf(rankValue);
+        }
+
+        String resourceName = suit + rank;
+        return context.getResources().getIdentifier(resourceName, "drawable", context.getPackageName());
+    }
+}
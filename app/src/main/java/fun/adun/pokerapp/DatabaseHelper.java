@@ -5,16 +5,59 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class DatabaseHelper extends SQLiteOpenHelper {
 
     private static final String DATABASE_NAME = "UserDB";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 2;
     private static final String TABLE_NAME = "users";
     private static final String COLUMN_ID = "id";
     private static final String COLUMN_USERNAME = "username";
     private static final String COLUMN_PASSWORD = "password";
 
+    // История раздач
+    private static final String TABLE_HANDS = "hands";
+    private static final String COLUMN_USER_ID = "user_id";
+    private static final String COLUMN_CORRECT = "correct";
+    private static final String COLUMN_FOLDED = "folded";
+    private static final String COLUMN_PLAYED_AT = "played_at";
+    private static final String COLUMN_PLAYER_CARDS = "player_cards";
+    private static final String COLUMN_PLAYER_MOVED = "player_moved";
+    private static final String COLUMN_COMPUTER_PLAYED = "computer_played";
+    private static final String COLUMN_EV_LOSS = "ev_loss";
+    private static final String COLUMN_COMPUTER_POLICY = "computer_policy";
+
+    // Агрегаты по пользователю, обновляются на каждой раздаче и каждом ответе
+    private static final String TABLE_STATS = "user_stats";
+    private static final String COLUMN_TOTAL_GAMES = "total_games";
+    private static final String COLUMN_PLAYER_FOLDS = "player_folds";
+    private static final String COLUMN_CORRECT_MOVES = "correct_moves";
+    private static final String COLUMN_TOTAL_MOVES = "total_moves";
+    private static final String COLUMN_ACCURACY = "accuracy";
+    private static final String COLUMN_COMPUTER_TURN_FIRST = "computer_turn_first";
+    private static final String COLUMN_CORRECT_ANSWERS = "correct_answers";
+    private static final String COLUMN_TOTAL_ANSWERS = "total_answers";
+    private static final String COLUMN_LAST_ATTEMPT_TIME = "last_attempt_time";
+    private static final String COLUMN_EV_LOST = "ev_lost";
+
+    // Состояние интервального повторения вопросов викторины
+    private static final String TABLE_REVIEWS = "question_reviews";
+    private static final String COLUMN_QUESTION_ID = "question_id";
+    private static final String COLUMN_DUE_AT = "due_at";
+    private static final String COLUMN_INTERVAL = "interval_ms";
+    private static final String COLUMN_EASE = "ease";
+    private static final String COLUMN_REPETITIONS = "repetitions";
+    private static final String COLUMN_LAPSES = "lapses";
+
+    // Сортировки таблицы лидеров, у каждой свой индекс
+    public static final String ORDER_ACCURACY = COLUMN_ACCURACY;
+    public static final String ORDER_GAMES = COLUMN_TOTAL_GAMES;
+    public static final String ORDER_QUIZ = COLUMN_CORRECT_ANSWERS;
+
     public DatabaseHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
     }
@@ -26,12 +69,69 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 + COLUMN_USERNAME + " TEXT, "
                 + COLUMN_PASSWORD + " TEXT)";
         db.execSQL(createTableQuery);
+        createStatsTables(db);
+        createReviewsTable(db);
+    }
+
+    // Раздачи хранят карты и контекст решения, чтобы их можно было оценить задним числом.
+    // ev_loss пуст, пока раздача не оценена; computer_policy — правило компьютера (ComputerPolicy).
+    private void createStatsTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_HANDS + " ("
+                + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COLUMN_USER_ID + " INTEGER NOT NULL, "
+                + COLUMN_CORRECT + " INTEGER NOT NULL, "
+                + COLUMN_FOLDED + " INTEGER NOT NULL, "
+                + COLUMN_PLAYED_AT + " INTEGER NOT NULL, "
+                + COLUMN_PLAYER_CARDS + " INTEGER NOT NULL, "
+                + COLUMN_PLAYER_MOVED + " INTEGER NOT NULL, "
+                + COLUMN_COMPUTER_PLAYED + " INTEGER NOT NULL, "
+                + COLUMN_COMPUTER_POLICY + " INTEGER NOT NULL, "
+                + COLUMN_EV_LOSS + " REAL)");
+        db.execSQL("CREATE INDEX idx_hands_user ON " + TABLE_HANDS + " (" + COLUMN_USER_ID + ")");
+
+        db.execSQL("CREATE TABLE " + TABLE_STATS + " ("
+                + COLUMN_USER_ID + " INTEGER PRIMARY KEY, "
+                + COLUMN_TOTAL_GAMES + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_PLAYER_FOLDS + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_CORRECT_MOVES + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_TOTAL_MOVES + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_ACCURACY + " REAL NOT NULL DEFAULT 0, "
+                + COLUMN_COMPUTER_TURN_FIRST + " INTEGER NOT NULL DEFAULT 1, "
+                + COLUMN_CORRECT_ANSWERS + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_TOTAL_ANSWERS + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_LAST_ATTEMPT_TIME + " INTEGER NOT NULL DEFAULT 0, "
+                + COLUMN_EV_LOST + " REAL NOT NULL DEFAULT 0)");
+        // Индексы под выборку первых K строк без сортировки всей таблицы
+        db.execSQL("CREATE INDEX idx_stats_accuracy ON " + TABLE_STATS
+                + " (" + COLUMN_ACCURACY + " DESC, " + COLUMN_TOTAL_MOVES + " DESC)");
+        db.execSQL("CREATE INDEX idx_stats_games ON " + TABLE_STATS
+                + " (" + COLUMN_TOTAL_GAMES + " DESC)");
+        db.execSQL("CREATE INDEX idx_stats_quiz ON " + TABLE_STATS
+                + " (" + COLUMN_CORRECT_ANSWERS + " DESC)");
+    }
+
+    private void createReviewsTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_REVIEWS + " ("
+                + COLUMN_USER_ID + " INTEGER NOT NULL, "
+                + COLUMN_QUESTION_ID + " INTEGER NOT NULL, "
+                + COLUMN_DUE_AT + " INTEGER NOT NULL, "
+                + COLUMN_INTERVAL + " INTEGER NOT NULL, "
+                + COLUMN_EASE + " REAL NOT NULL, "
+                + COLUMN_REPETITIONS + " INTEGER NOT NULL, "
+                + COLUMN_LAPSES + " INTEGER NOT NULL, "
+                + "PRIMARY KEY (" + COLUMN_USER_ID + ", " + COLUMN_QUESTION_ID + "))");
+        // Выборка вопросов к повторению страницами по времени
+        db.execSQL("CREATE INDEX idx_reviews_due ON " + TABLE_REVIEWS
+                + " (" + COLUMN_USER_ID + ", " + COLUMN_DUE_AT + ", " + COLUMN_QUESTION_ID + ")");
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_NAME);
-        onCreate(db);
+        // В версии 1 была только таблица пользователей
+        if (oldVersion < 2) {
+            createStatsTables(db);
+            createReviewsTable(db);
+        }
     }
 
     // Добавление нового пользователя
@@ -46,14 +146,385 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
     // Проверка пользователя при входе
     public boolean checkUser(String username, String password) {
+        return getUserId(username, password) != -1;
+    }
+
+    // Идентификатор пользователя или -1, если логин или пароль неверны
+    public long getUserId(String username, String password) {
         SQLiteDatabase db = this.getReadableDatabase();
         String[] columns = {COLUMN_ID};
         String selection = COLUMN_USERNAME + " = ? AND " + COLUMN_PASSWORD + " = ?";
         String[] selectionArgs = {username, password};
 
         Cursor cursor = db.query(TABLE_NAME, columns, selection, selectionArgs, null, null, null);
-        int count = cursor.getCount();
+        long userId = cursor.moveToFirst() ? cursor.getLong(0) : -1;
+        cursor.close();
+        return userId;
+    }
+
+    // Статистика игры пользователя
+    public GameStats getGameStats(long userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String[] columns = {COLUMN_TOTAL_GAMES, COLUMN_PLAYER_FOLDS, COLUMN_CORRECT_MOVES,
+                COLUMN_TOTAL_MOVES, COLUMN_COMPUTER_TURN_FIRST, COLUMN_EV_LOST};
+        Cursor cursor = db.query(TABLE_STATS, columns, COLUMN_USER_ID + " = ?",
+                new String[]{String.valueOf(userId)}, null, null, null);
+
+        GameStats stats = new GameStats();
+        if (cursor.moveToFirst()) {
+            stats.totalGames = cursor.getInt(0);
+            stats.playerFolds = cursor.getInt(1);
+            stats.correctMoves = cursor.getInt(2);
+            stats.totalMoves = cursor.getInt(3);
+            stats.isComputerTurnFirst = cursor.getInt(4) != 0;
+            stats.evLost = cursor.getFloat(5);
+        }
+        cursor.close();
+        return stats;
+    }
+
+    // Запись раздачи и обновление агрегатов одной транзакцией.
+    // Раздача без оценки (evLoss = NaN) дооценивается позже через applyGrades.
+    public void recordHand(long userId, HandRecord hand) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ContentValues values = new ContentValues();
+            values.put(COLUMN_USER_ID, userId);
+            values.put(COLUMN_CORRECT, hand.correct ? 1 : 0);
+            values.put(COLUMN_FOLDED, hand.playerFolded ? 1 : 0);
+            values.put(COLUMN_PLAYED_AT, System.currentTimeMillis());
+            values.put(COLUMN_PLAYER_CARDS, hand.playerCards);
+            values.put(COLUMN_PLAYER_MOVED, hand.playerMoved ? 1 : 0);
+            values.put(COLUMN_COMPUTER_PLAYED, hand.computerPlayed ? 1 : 0);
+            values.put(COLUMN_COMPUTER_POLICY, hand.computerPolicy);
+            if (!Float.isNaN(hand.evLoss)) values.put(COLUMN_EV_LOSS, hand.evLoss);
+            db.insert(TABLE_HANDS, null, values);
+
+            int moves = hand.playerMoved ? 1 : 0;
+            int correct = hand.correct ? 1 : 0;
+            float evLoss = Float.isNaN(hand.evLoss) ? 0 : hand.evLoss;
+            ensureStatsRow(db, userId);
+            db.execSQL("UPDATE " + TABLE_STATS + " SET "
+                            + COLUMN_TOTAL_GAMES + " = " + COLUMN_TOTAL_GAMES + " + 1, "
+                            + COLUMN_PLAYER_FOLDS + " = " + COLUMN_PLAYER_FOLDS + " + ?, "
+                            + COLUMN_CORRECT_MOVES + " = " + COLUMN_CORRECT_MOVES + " + ?, "
+                            + COLUMN_TOTAL_MOVES + " = " + COLUMN_TOTAL_MOVES + " + ?, "
+                            + COLUMN_EV_LOST + " = " + COLUMN_EV_LOST + " + ?, "
+                            + COLUMN_ACCURACY + " = CASE WHEN " + COLUMN_TOTAL_MOVES + " + ? = 0 THEN 0"
+                            + " ELSE (" + COLUMN_CORRECT_MOVES + " + ?) * 100.0 / (" + COLUMN_TOTAL_MOVES + " + ?) END"
+                            + " WHERE " + COLUMN_USER_ID + " = ?",
+                    new Object[]{hand.playerFolded ? 1 : 0, correct, moves, evLoss, moves, correct, moves, userId});
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Раздачи, которые записаны без оценки
+    public List<HandRecord> getUngradedHands(long userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String[] columns = {COLUMN_ID, COLUMN_PLAYER_CARDS, COLUMN_PLAYER_MOVED, COLUMN_COMPUTER_PLAYED,
+                COLUMN_FOLDED, COLUMN_COMPUTER_POLICY};
+        String selection = COLUMN_USER_ID + " = ? AND " + COLUMN_EV_LOSS + " IS NULL";
+        Cursor cursor = db.query(TABLE_HANDS, columns, selection, new String[]{String.valueOf(userId)},
+                null, null, null);
+
+        List<HandRecord> hands = new ArrayList<>();
+        while (cursor.moveToNext()) {
+            HandRecord hand = new HandRecord();
+            hand.id = cursor.getLong(0);
+            hand.playerCards = cursor.getLong(1);
+            hand.playerMoved = cursor.getInt(2) != 0;
+            hand.computerPlayed = cursor.getInt(3) != 0;
+            hand.playerFolded = cursor.getInt(4) != 0;
+            hand.computerPolicy = cursor.getInt(5);
+            hands.add(hand);
+        }
+        cursor.close();
+        return hands;
+    }
+
+    // Сохраняет новые оценки раздач и поправляет агрегаты на разницу со старыми
+    public void applyGrades(long userId, List<HandRecord> hands) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            SQLiteStatement previous = db.compileStatement("SELECT " + COLUMN_CORRECT + " FROM "
+                    + TABLE_HANDS + " WHERE " + COLUMN_ID + " = ?");
+            SQLiteStatement update = db.compileStatement("UPDATE " + TABLE_HANDS + " SET "
+                    + COLUMN_CORRECT + " = ?, " + COLUMN_EV_LOSS + " = ? WHERE " + COLUMN_ID + " = ?");
+            int correctDelta = 0;
+            double evLost = 0;
+            for (HandRecord hand : hands) {
+                previous.bindLong(1, hand.id);
+                boolean wasCorrect = previous.simpleQueryForLong() != 0;
+                update.bindLong(1, hand.correct ? 1 : 0);
+                update.bindDouble(2, hand.evLoss);
+                update.bindLong(3, hand.id);
+                update.executeUpdateDelete();
+                if (hand.playerMoved) {
+                    correctDelta += (hand.correct ? 1 : 0) - (wasCorrect ? 1 : 0);
+                }
+                evLost += hand.evLoss;
+            }
+            previous.close();
+            update.close();
+
+            db.execSQL("UPDATE " + TABLE_STATS + " SET "
+                            + COLUMN_CORRECT_MOVES + " = " + COLUMN_CORRECT_MOVES + " + ?, "
+                            + COLUMN_EV_LOST + " = " + COLUMN_EV_LOST + " + ?, "
+                            + COLUMN_ACCURACY + " = CASE WHEN " + COLUMN_TOTAL_MOVES + " = 0 THEN 0"
+                            + " ELSE (" + COLUMN_CORRECT_MOVES + " + ?) * 100.0 / " + COLUMN_TOTAL_MOVES + " END"
+                            + " WHERE " + COLUMN_USER_ID + " = ?",
+                    new Object[]{correctDelta, evLost, correctDelta, userId});
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public void saveComputerTurnFirst(long userId, boolean isComputerTurnFirst) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        ensureStatsRow(db, userId);
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_COMPUTER_TURN_FIRST, isComputerTurnFirst ? 1 : 0);
+        db.update(TABLE_STATS, values, COLUMN_USER_ID + " = ?", new String[]{String.valueOf(userId)});
+    }
+
+    // Сброс игровой статистики, результаты викторины не трогаем
+    public void resetGameStats(long userId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            String[] args = {String.valueOf(userId)};
+            db.delete(TABLE_HANDS, COLUMN_USER_ID + " = ?", args);
+
+            ContentValues values = new ContentValues();
+            values.put(COLUMN_TOTAL_GAMES, 0);
+            values.put(COLUMN_PLAYER_FOLDS, 0);
+            values.put(COLUMN_CORRECT_MOVES, 0);
+            values.put(COLUMN_TOTAL_MOVES, 0);
+            values.put(COLUMN_ACCURACY, 0);
+            values.put(COLUMN_EV_LOST, 0);
+            values.put(COLUMN_COMPUTER_TURN_FIRST, 1);
+            db.update(TABLE_STATS, values, COLUMN_USER_ID + " = ?", args);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Перенос статистики из SharedPreferences версий до базы: счётчики прибавляются
+    // к уже накопленным, очерёдность хода и время последнего ответа берутся из старых данных
+    public void importLegacyStats(long userId, GameStats game, QuizStats quiz) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            ensureStatsRow(db, userId);
+            db.execSQL("UPDATE " + TABLE_STATS + " SET "
+                            + COLUMN_TOTAL_GAMES + " = " + COLUMN_TOTAL_GAMES + " + ?, "
+                            + COLUMN_PLAYER_FOLDS + " = " + COLUMN_PLAYER_FOLDS + " + ?, "
+                            + COLUMN_CORRECT_MOVES + " = " + COLUMN_CORRECT_MOVES + " + ?, "
+                            + COLUMN_TOTAL_MOVES + " = " + COLUMN_TOTAL_MOVES + " + ?, "
+                            + COLUMN_COMPUTER_TURN_FIRST + " = ?, "
+                            + COLUMN_CORRECT_ANSWERS + " = " + COLUMN_CORRECT_ANSWERS + " + ?, "
+                            + COLUMN_TOTAL_ANSWERS + " = " + COLUMN_TOTAL_ANSWERS + " + ?, "
+                            + COLUMN_LAST_ATTEMPT_TIME + " = MAX(" + COLUMN_LAST_ATTEMPT_TIME + ", ?)"
+                            + " WHERE " + COLUMN_USER_ID + " = ?",
+                    new Object[]{game.totalGames, game.playerFolds, game.correctMoves, game.totalMoves,
+                            game.isComputerTurnFirst ? 1 : 0, quiz.correctAnswers,
+                            quiz.totalQuestionsAttempted, quiz.lastAttemptTime, userId});
+            // Точность считается по уже обновлённым счётчикам
+            db.execSQL("UPDATE " + TABLE_STATS + " SET "
+                            + COLUMN_ACCURACY + " = CASE WHEN " + COLUMN_TOTAL_MOVES + " = 0 THEN 0"
+                            + " ELSE " + COLUMN_CORRECT_MOVES + " * 100.0 / " + COLUMN_TOTAL_MOVES + " END"
+                            + " WHERE " + COLUMN_USER_ID + " = ?",
+                    new Object[]{userId});
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Статистика викторины пользователя
+    public QuizStats getQuizStats(long userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String[] columns = {COLUMN_CORRECT_ANSWERS, COLUMN_TOTAL_ANSWERS, COLUMN_LAST_ATTEMPT_TIME};
+        Cursor cursor = db.query(TABLE_STATS, columns, COLUMN_USER_ID + " = ?",
+                new String[]{String.valueOf(userId)}, null, null, null);
+
+        QuizStats stats = new QuizStats();
+        if (cursor.moveToFirst()) {
+            stats.correctAnswers = cursor.getInt(0);
+            stats.totalQuestionsAttempted = cursor.getInt(1);
+            stats.lastAttemptTime = cursor.getLong(2);
+        }
+        cursor.close();
+        return stats;
+    }
+
+    public void recordQuizAnswer(long userId, boolean isCorrect, long attemptTime) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            int correct = isCorrect ? 1 : 0;
+            ensureStatsRow(db, userId);
+            db.execSQL("UPDATE " + TABLE_STATS + " SET "
+                            + COLUMN_CORRECT_ANSWERS + " = " + COLUMN_CORRECT_ANSWERS + " + ?, "
+                            + COLUMN_TOTAL_ANSWERS + " = " + COLUMN_TOTAL_ANSWERS + " + 1, "
+                            + COLUMN_LAST_ATTEMPT_TIME + " = ?"
+                            + " WHERE " + COLUMN_USER_ID + " = ?",
+                    new Object[]{correct, attemptTime, userId});
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Первые limit пользователей по одной из сортировок ORDER_*
+    public List<LeaderboardEntry> getLeaderboard(String order, int limit) {
+        String orderBy;
+        if (ORDER_ACCURACY.equals(order)) {
+            orderBy = "s." + COLUMN_ACCURACY + " DESC, s." + COLUMN_TOTAL_MOVES + " DESC";
+        } else if (ORDER_GAMES.equals(order)) {
+            orderBy = "s." + COLUMN_TOTAL_GAMES + " DESC";
+        } else if (ORDER_QUIZ.equals(order)) {
+            orderBy = "s." + COLUMN_CORRECT_ANSWERS + " DESC";
+        } else {
+            throw new IllegalArgumentException("Неизвестная сортировка: " + order);
+        }
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery("SELECT u." + COLUMN_USERNAME + ", s." + COLUMN_TOTAL_GAMES
+                + ", s." + COLUMN_ACCURACY + ", s." + COLUMN_CORRECT_ANSWERS
+                + " FROM " + TABLE_STATS + " s JOIN " + TABLE_NAME + " u ON u." + COLUMN_ID
+                + " = s." + COLUMN_USER_ID
+                + " ORDER BY " + orderBy + " LIMIT " + limit, null);
+
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        while (cursor.moveToNext()) {
+            LeaderboardEntry entry = new LeaderboardEntry();
+            entry.username = cursor.getString(0);
+            entry.totalGames = cursor.getInt(1);
+            entry.accuracy = cursor.getFloat(2);
+            entry.correctAnswers = cursor.getInt(3);
+            entries.add(entry);
+        }
+        cursor.close();
+        return entries;
+    }
+
+    // Новые вопросы добавляются сразу готовыми к показу, уже известные не меняются
+    public void seedReviews(long userId, int[] questionIds, float initialEase) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        SQLiteStatement insert = db.compileStatement("INSERT OR IGNORE INTO " + TABLE_REVIEWS + " ("
+                + COLUMN_USER_ID + ", " + COLUMN_QUESTION_ID + ", " + COLUMN_DUE_AT + ", "
+                + COLUMN_INTERVAL + ", " + COLUMN_EASE + ", " + COLUMN_REPETITIONS + ", "
+                + COLUMN_LAPSES + ") VALUES (?, ?, 0, 0, ?, 0, 0)");
+        db.beginTransaction();
+        try {
+            for (int questionId : questionIds) {
+                insert.bindLong(1, userId);
+                insert.bindLong(2, questionId);
+                insert.bindDouble(3, initialEase);
+                insert.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            insert.close();
+        }
+    }
+
+    // Страница вопросов, срок которых наступил к now, после позиции (afterDue, afterId)
+    public List<ReviewState> getDueReviews(long userId, long now, long afterDue, int afterId, int limit) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String[] columns = {COLUMN_QUESTION_ID, COLUMN_DUE_AT, COLUMN_INTERVAL, COLUMN_EASE,
+                COLUMN_REPETITIONS, COLUMN_LAPSES};
+        String selection = COLUMN_USER_ID + " = ? AND " + COLUMN_DUE_AT + " <= ? AND ("
+                + COLUMN_DUE_AT + " > ? OR (" + COLUMN_DUE_AT + " = ? AND " + COLUMN_QUESTION_ID + " > ?))";
+        String[] selectionArgs = {String.valueOf(userId), String.valueOf(now),
+                String.valueOf(afterDue), String.valueOf(afterDue), String.valueOf(afterId)};
+        Cursor cursor = db.query(TABLE_REVIEWS, columns, selection, selectionArgs, null, null,
+                COLUMN_DUE_AT + ", " + COLUMN_QUESTION_ID, String.valueOf(limit));
+
+        List<ReviewState> reviews = new ArrayList<>();
+        while (cursor.moveToNext()) {
+            ReviewState review = new ReviewState();
+            review.questionId = cursor.getInt(0);
+            review.dueAt = cursor.getLong(1);
+            review.intervalMs = cursor.getLong(2);
+            review.ease = cursor.getFloat(3);
+            review.repetitions = cursor.getInt(4);
+            review.lapses = cursor.getInt(5);
+            reviews.add(review);
+        }
         cursor.close();
-        return count > 0; // Возвращает true, если пользователь найден
+        return reviews;
+    }
+
+    public void saveReview(long userId, ReviewState review) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_USER_ID, userId);
+        values.put(COLUMN_QUESTION_ID, review.questionId);
+        values.put(COLUMN_DUE_AT, review.dueAt);
+        values.put(COLUMN_INTERVAL, review.intervalMs);
+        values.put(COLUMN_EASE, review.ease);
+        values.put(COLUMN_REPETITIONS, review.repetitions);
+        values.put(COLUMN_LAPSES, review.lapses);
+        db.insertWithOnConflict(TABLE_REVIEWS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private void ensureStatsRow(SQLiteDatabase db, long userId) {
+        db.execSQL("INSERT OR IGNORE INTO " + TABLE_STATS + " (" + COLUMN_USER_ID + ") VALUES (?)",
+                new Object[]{userId});
+    }
+
+    public static class GameStats {
+        public int totalGames;
+        public int playerFolds;
+        public int correctMoves;
+        public int totalMoves;
+        public boolean isComputerTurnFirst = true;
+        public float evLost;
+    }
+
+    public static class HandRecord {
+        public long id;
+        // Карты игрока битовой маской, бит cardId
+        public long playerCards;
+        public boolean playerMoved;
+        public boolean playerFolded;
+        // Компьютер ходил первым и решил играть
+        public boolean computerPlayed;
+        // Правило, по которому компьютер принимал решение (ComputerPolicy)
+        public int computerPolicy = ComputerPolicy.CATEGORY;
+        public boolean correct;
+        // Потеря EV в ставках; NaN — раздача ещё не оценена
+        public float evLoss = Float.NaN;
+    }
+
+    public static class QuizStats {
+        public int correctAnswers;
+        public int totalQuestionsAttempted;
+        public long lastAttemptTime;
+    }
+
+    public static class ReviewState {
+        public int questionId;
+        public long dueAt;
+        public long intervalMs;
+        public float ease;
+        public int repetitions;
+        public int lapses;
+    }
+
+    public static class LeaderboardEntry {
+        public String username;
+        public int totalGames;
+        public float accuracy;
+        public int correctAnswers;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package fun.adun.pokerapp;
+
+import android.content.res.AssetManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+// Оценка решения игрока с учётом того, что он знал.
+// Если компьютер уже решил играть, его рука берётся из диапазона, где каждая рука
+// взвешена вероятностью игры с ней по правилу, которое действовало в этой раздаче
+// (ComputerPolicy). Иначе — случайная рука.
+// Ставка — одна единица: ответ приносит 2 * equity - 1, сброс — 0.
+// Потеря EV — разница с лучшим из двух решений.
+final class DecisionGrader {
+
+    private static DecisionGrader instance;
+
+    private final EquityTable uniform;
+    // Шансы против диапазона по номеру правила компьютера
+    private final EquityTable[] ranges;
+
+    DecisionGrader(EquityTable uniform, EquityTable[] ranges) {
+        this.uniform = uniform;
+        this.ranges = ranges;
+    }
+
+    // Таблицы строятся при сборке (tools) и читаются из assets один раз на процесс.
+    // Чтение около мегабайта, вызывать не из главного потока.
+    static synchronized DecisionGrader get(AssetManager assets) {
+        if (instance == null) {
+            EquityTable[] ranges = new EquityTable[ComputerPolicy.COUNT];
+            for (int policy = 0; policy < ranges.length; policy++) {
+                ranges[policy] = read(assets, ComputerPolicy.rangeFileName(policy));
+            }
+            instance = new DecisionGrader(read(assets, EquityTable.FILE_NAME), ranges);
+        }
+        return instance;
+    }
+
+    private static EquityTable read(AssetManager assets, String name) {
+        try {
+            InputStream in = assets.open(name);
+            try {
+                return EquityTable.read(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // Таблицы входят в APK, без них сборка неисправна
+            throw new IllegalStateException("Не удалось прочитать таблицу " + name, e);
+        }
+    }
+
+    // Шансы руки против случайной руки
+    float equity(List<Integer> hand) {
+        return uniform.equity(hand);
+    }
+
+    // Шансы руки против диапазона рук, с которыми компьютер играет по правилу policy
+    float equityVsPlayingRange(int policy, long handMask) {
+        return ranges[policy].equity(handMask);
+    }
+
+    // Заполняет equity, evLoss и correct для раздачи, где игрок принимал решение
+    void grade(DatabaseHelper.HandRecord hand) {
+        if (!hand.playerMoved) {
+            hand.evLoss = 0;
+            hand.correct = false;
+            return;
+        }
+        float equity = hand.computerPlayed
+                ? ranges[hand.computerPolicy].equity(hand.playerCards)
+                : uniform.equity(hand.playerCards);
+        float callEv = 2 * equity - 1;
+        float chosenEv = hand.playerFolded ? 0 : callEv;
+        hand.evLoss = Math.max(0, callEv) - chosenEv;
+        hand.correct = hand.evLoss == 0;
+    }
+
+    // Оценка раздач, сыгранных до загрузки таблиц, и поправка статистики
+    void regrade(DatabaseHelper databaseHelper, long userId) {
+        List<DatabaseHelper.HandRecord> hands = databaseHelper.getUngradedHands(userId);
+        if (hands.isEmpty()) return;
+        for (DatabaseHelper.HandRecord hand : hands) {
+            grade(hand);
+        }
+        databaseHelper.applyGrades(userId, hands);
+    }
+}
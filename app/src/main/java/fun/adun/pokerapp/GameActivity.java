@@ -1,7 +1,8 @@
 package fun.adun.pokerapp;
 
-import android.content.SharedPreferences;
 import android.content.Intent;
+import android.content.res.AssetManager;
+import android.graphics.drawable.Drawable;
 import android.os.Bundle;
 import android.os.Handler;
 import android.view.View;
@@ -11,15 +12,24 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AppCompatActivity;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class GameActivity extends AppCompatActivity {
 
+    // Правило компьютера (ComputerPolicy) и бюджет расчёта его решения в мс, задаются уровнем сложности
+    public static final String EXTRA_COMPUTER_POLICY = "computerPolicy";
+    public static final String EXTRA_THINK_BUDGET_MS = "thinkBudgetMs";
+
     // UI элементы
     private LinearLayout computerCards;
     private LinearLayout playerCards;
@@ -28,10 +38,11 @@ public class GameActivity extends AppCompatActivity {
     private Button resetStatsButton;
     private TextView resultText;
     private TextView statsText;
+    private ImageView[] computerCardViews;
+    private ImageView[] playerCardViews;
 
     // Игровые данные
-    private List<Integer> deck;
-    private List<Integer> computerHand;
+    private PreparedRound currentRound;
     private List<Integer> playerHand;
 
     // Статистика
@@ -39,15 +50,39 @@ public class GameActivity extends AppCompatActivity {
     private int playerFolds = 0;
     private int correctMoves = 0;
     private int totalMoves = 0;
+    private float evLost = 0;
     private boolean isComputerTurnFirst = true;
+    // Компьютер ходил первым в этом раунде и решил играть
+    private boolean computerPlayed = false;
+    private DatabaseHelper databaseHelper;
+    private long userId;
+    // Оценка решений по таблицам шансов; null, пока таблицы загружаются
+    private volatile DecisionGrader decisionGrader;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    // Следующий раунд готовится в отдельном потоке, чтобы не ждать загрузки таблиц
+    private final ExecutorService roundExecutor = Executors.newSingleThreadExecutor();
+    private Future<PreparedRound> nextRound;
+    // Ресурсы картинок карт; заполняются один раз в фоновом потоке
+    private volatile int[] cardResources;
+    private final AnytimeDecision anytimeDecision = new AnytimeDecision();
+    private int computerPolicy;
+    private long thinkBudgetMs;
+    // Последняя оценка, по которой решал компьютер
+    private AnytimeDecision.Estimate lastEstimate;
+    // Отклонение этой оценки от точных шансов; NaN, если таблицы ещё не загружены
+    private double lastEstimateError = Double.NaN;
 
     // Константы
     private final Random random = new Random();
     private final Handler handler = new Handler();
+    // Отложенные шаги раунда; отдельными объектами, чтобы сброс статистики мог их снять
+    private final Runnable startRoundTask = this::startNewRound;
+    private final Runnable computerMoveTask = this::finishComputerDecision;
     private final int CARD_WIDTH_DP = 72;
     private final int CARD_HEIGHT_DP = 100;
     private final int CARD_MARGIN_DP = 2;
     private final int ROUND_DELAY_MS = 5000;
+    private final int THINK_DELAY_MS = 1500;
 
     // Константы комбинаций
     private static final int HIGH_CARD = 1;
@@ -65,11 +100,46 @@ public class GameActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_game);
+        userId = MainActivity.requireUserId(getIntent());
+        computerPolicy = getIntent().getIntExtra(EXTRA_COMPUTER_POLICY, ComputerPolicy.PROPORTIONAL);
+        thinkBudgetMs = Math.min(getIntent().getLongExtra(EXTRA_THINK_BUDGET_MS, THINK_DELAY_MS),
+                THINK_DELAY_MS);
+        databaseHelper = createDatabaseHelper();
         initViews();
         loadStats();
+        loadDecisionGrader();
         startNewRound();
     }
 
+    private void loadDecisionGrader() {
+        AssetManager assets = getAssets();
+        executor.execute(() -> {
+            DecisionGrader grader = readDecisionGrader(assets);
+            // Раздачи, сыгранные до загрузки таблиц, оцениваются заново. Запись раздач идёт
+            // через этот же поток, поэтому на экран переносится только поправка от переоценки.
+            DatabaseHelper.GameStats before = databaseHelper.getGameStats(userId);
+            grader.regrade(databaseHelper, userId);
+            DatabaseHelper.GameStats after = databaseHelper.getGameStats(userId);
+            handler.post(() -> {
+                decisionGrader = grader;
+                correctMoves += after.correctMoves - before.correctMoves;
+                evLost += after.evLost - before.evLost;
+                updateStats();
+            });
+        });
+    }
+
+    // Таблицы читаются из assets один раз на процесс; тесты подставляют готовые
+    @VisibleForTesting
+    DecisionGrader readDecisionGrader(AssetManager assets) {
+        return DecisionGrader.get(assets);
+    }
+
+    @VisibleForTesting
+    DatabaseHelper createDatabaseHelper() {
+        return new DatabaseHelper(this);
+    }
+
     private void initViews() {
         computerCards = findViewById(R.id.computerCards);
         playerCards = findViewById(R.id.playerCards);
@@ -82,21 +152,34 @@ public class GameActivity extends AppCompatActivity {
         foldButton.setOnClickListener(v -> playerFolds());
         callButton.setOnClickListener(v -> playerCalls());
         resetStatsButton.setOnClickListener(v -> resetStats());
+
+        computerCardViews = createCardViews(computerCards);
+        playerCardViews = createCardViews(playerCards);
+    }
+
+    // Раунд, подготовленный заранее: раздача, оценка рук, решение компьютера и картинки карт
+    private static final class PreparedRound {
+        final List<Integer> computerHand = new ArrayList<>(5);
+        final List<Integer> playerHand = new ArrayList<>(5);
+        int computerScore;
+        int playerScore;
+        int kickers;
+        // Шансы руки компьютера; NaN, если таблицы ещё не загружены
+        float computerEquity = Float.NaN;
+        // Случайное число, по которому принято решение компьютера
+        float playDraw;
+        boolean computerWillPlay;
+        // Правило, по которому принято решение компьютера (ComputerPolicy)
+        int computerPolicy;
+        final Drawable[] computerFaces = new Drawable[5];
+        final Drawable[] playerFaces = new Drawable[5];
+        final Drawable[] cardBacks = new Drawable[5];
     }
 
     private void startNewRound() {
-        computerCards.removeAllViews();
-        playerCards.removeAllViews();
-
-        initializeDeck();
-        Collections.shuffle(deck);
-
-        computerHand = new ArrayList<>();
-        playerHand = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            computerHand.add(deck.remove(0));
-            playerHand.add(deck.remove(0));
-        }
+        currentRound = takePreparedRound();
+        playerHand = currentRound.playerHand;
+        computerPlayed = false;
 
         showCards(false);
 
@@ -109,105 +192,168 @@ public class GameActivity extends AppCompatActivity {
         isComputerTurnFirst = !isComputerTurnFirst;
     }
 
-    private void initializeDeck() {
-        deck = new ArrayList<>();
-        for (int i = 0; i < 52; i++) {
-            deck.add(i);
+    // Запускает подготовку следующего раунда, если она ещё не запущена
+    private void prepareNextRound() {
+        if (nextRound == null) {
+            nextRound = roundExecutor.submit(this::prepareRound);
         }
     }
 
-    private void showCards(boolean showComputerCards) {
-        computerCards.removeAllViews();
-        playerCards.removeAllViews();
+    private void cancelPreparedRound() {
+        if (nextRound != null) {
+            nextRound.cancel(true);
+            nextRound = null;
+        }
+    }
 
-        for (int cardId : computerHand) {
-            addCardToLayout(computerCards, cardId, showComputerCards);
+    // Ждёт, пока следующий раунд подготовится в фоне, чтобы тест не попал в запасной путь
+    @VisibleForTesting
+    void awaitNextRound() throws InterruptedException, ExecutionException {
+        if (nextRound != null) {
+            nextRound.get();
         }
+    }
 
-        for (int cardId : playerHand) {
-            addCardToLayout(playerCards, cardId, true);
+    // Готовый раунд из фона; если он не успел подготовиться, раунд готовится здесь же
+    private PreparedRound takePreparedRound() {
+        Future<PreparedRound> future = nextRound;
+        nextRound = null;
+        if (future != null && future.isDone() && !future.isCancelled()) {
+            try {
+                PreparedRound round = future.get();
+                if (round != null) return round;
+            } catch (InterruptedException | ExecutionException ignored) {
+            }
+        } else if (future != null) {
+            future.cancel(true);
         }
+        return prepareRound();
     }
 
-    private void addCardToLayout(LinearLayout layout, int cardId, boolean showFront) {
-        ImageView card = new ImageView(this);
-        card.setImageResource(showFront ? getCardResource(cardId) : R.drawable.card_back);
+    // Выполняется в фоновом потоке, пока на экране результат текущего раунда
+    private PreparedRound prepareRound() {
+        List<Integer> deck = new ArrayList<>(52);
+        for (int i = 0; i < 52; i++) {
+            deck.add(i);
+        }
+        Collections.shuffle(deck, random);
 
-        LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
-                dpToPx(CARD_WIDTH_DP),
-                dpToPx(CARD_HEIGHT_DP)
-        );
-        params.setMargins(dpToPx(CARD_MARGIN_DP), 0, 0, 0);
-        card.setLayoutParams(params);
-        layout.addView(card);
-    }
+        PreparedRound round = new PreparedRound();
+        for (int i = 0; i < 5; i++) {
+            round.computerHand.add(deck.get(2 * i));
+            round.playerHand.add(deck.get(2 * i + 1));
+        }
 
-    private int dpToPx(int dp) {
-        return (int) (dp * getResources().getDisplayMetrics().density);
-    }
+        round.computerScore = evaluateHand(round.computerHand);
+        round.playerScore = evaluateHand(round.playerHand);
+        round.kickers = compareKickers(round.playerHand, round.computerHand);
+
+        // Запасное решение на случай, если за время раздумий не будет ни одной оценки.
+        // Пока таблицы не загружены, правила по шансам заменяются правилом по комбинациям.
+        DecisionGrader grader = decisionGrader;
+        round.playDraw = random.nextFloat();
+        round.computerPolicy = grader != null ? computerPolicy : ComputerPolicy.CATEGORY;
+        if (grader != null) {
+            round.computerEquity = grader.equity(round.computerHand);
+        }
+        round.computerWillPlay = shouldComputerPlay(round.computerPolicy, round.computerScore,
+                round.computerEquity, round.playDraw);
 
-    private int getCardResource(int cardId) {
-        String suit;
-        String rank;
+        if (Thread.currentThread().isInterrupted()) return null;
 
-        switch (cardId / 13) {
-            case 0: suit = "h"; break;
-            case 1: suit = "d"; break;
-            case 2: suit = "c"; break;
-            case 3: suit = "s"; break;
-            default: return R.drawable.card_back;
+        int[] resources = cardResources;
+        if (resources == null) {
+            resources = new int[52];
+            for (int cardId = 0; cardId < 52; cardId++) {
+                resources[cardId] = CardViews.getCardResource(this, cardId);
+            }
+            cardResources = resources;
         }
+        for (int i = 0; i < 5; i++) {
+            round.computerFaces[i] = getDrawable(resources[round.computerHand.get(i)]);
+            round.playerFaces[i] = getDrawable(resources[round.playerHand.get(i)]);
+            round.cardBacks[i] = getDrawable(R.drawable.card_back);
+        }
+        return round;
+    }
 
-        int rankValue = (cardId % 13) + 1;
-        switch (rankValue) {
-            case 1: rank = "a"; break;
-            case 11: rank = "j"; break;
-            case 12: rank = "q"; break;
-            case 13: rank = "k"; break;
-            default: rank = String.valueOf(rankValue);
+    private void showCards(boolean showComputerCards) {
+        for (int i = 0; i < 5; i++) {
+            computerCardViews[i].setImageDrawable(showComputerCards
+                    ? currentRound.computerFaces[i] : currentRound.cardBacks[i]);
+            playerCardViews[i].setImageDrawable(currentRound.playerFaces[i]);
         }
+    }
 
-        String resourceName = suit + rank;
-        return getResources().getIdentifier(resourceName, "drawable", getPackageName());
+    // Пять карт на раунд; картинки меняются, сами view создаются один раз
+    private ImageView[] createCardViews(LinearLayout layout) {
+        ImageView[] cards = new ImageView[5];
+        for (int i = 0; i < cards.length; i++) {
+            ImageView card = new ImageView(this);
+            LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
+                    CardViews.dpToPx(this, CARD_WIDTH_DP),
+                    CardViews.dpToPx(this, CARD_HEIGHT_DP)
+            );
+            params.setMargins(CardViews.dpToPx(this, CARD_MARGIN_DP), 0, 0, 0);
+            card.setLayoutParams(params);
+            layout.addView(card);
+            cards[i] = card;
+        }
+        return cards;
     }
 
     private void computerDecision() {
         disableButtons();
         resultText.setText("Компьютер думает...");
 
-        handler.postDelayed(() -> {
-            int handStrength = evaluateHand(computerHand);
-            boolean willPlay = shouldComputerPlay(handStrength);
-
-            if (willPlay) {
-                resultText.setText("Компьютер играет. Ваш ход!");
-                enableButtons();
-            } else {
-                totalGames++;
-                showCards(true);
-                resultText.setText("Компьютер сбросил карты.");
-                updateStats();
-                handler.postDelayed(this::startNewRound, ROUND_DELAY_MS);
+        // Пока идёт пауза, шансы руки уточняются в фоне; в срок берётся лучшая оценка.
+        // Правилу по комбинациям шансы не нужны.
+        if (computerPolicy != ComputerPolicy.CATEGORY) {
+            long handMask = 0;
+            for (int card : currentRound.computerHand) {
+                handMask |= 1L << card;
             }
-        }, 1500);
-    }
+            anytimeDecision.start(handMask, thinkBudgetMs);
+        }
+        handler.postDelayed(computerMoveTask, THINK_DELAY_MS);
+    }
+
+    private void finishComputerDecision() {
+        AnytimeDecision.Estimate estimate = anytimeDecision.commit();
+        boolean willPlay = currentRound.computerWillPlay;
+        if (estimate != null) {
+            currentRound.computerPolicy = computerPolicy;
+            willPlay = shouldComputerPlay(computerPolicy, currentRound.computerScore,
+                    (float) estimate.equity, currentRound.playDraw);
+            lastEstimate = estimate;
+            lastEstimateError = decisionGrader != null
+                    ? Math.abs(estimate.equity - decisionGrader.equity(currentRound.computerHand))
+                    : Double.NaN;
+        }
 
+        if (willPlay) {
+            computerPlayed = true;
+            resultText.setText("Компьютер играет. Ваш ход!");
+            enableButtons();
+        } else {
+            totalGames++;
+            showCards(true);
+            resultText.setText("Компьютер сбросил карты.");
+            recordHand(gradeHand(false, false));
+            scheduleNextRound();
+        }
+        updateStats();
+    }
 
+    // Пока на экране результат, следующий раунд готовится в фоне
+    private void scheduleNextRound() {
+        prepareNextRound();
+        handler.postDelayed(startRoundTask, ROUND_DELAY_MS);
+    }
 
-    private boolean shouldComputerPlay(int handStrength) {
-        switch (handStrength) {
-            case ROYAL_FLUSH:
-            case STRAIGHT_FLUSH:
-            case FOUR_OF_A_KIND:
-            case FULL_HOUSE:
-            case FLUSH:
-            case STRAIGHT:
-                return true;
-            case THREE_OF_A_KIND: return random.nextFloat() < 0.9;
-            case TWO_PAIRS: return random.nextFloat() < 0.8;
-            case PAIR: return random.nextFloat() < 0.6;
-            default: return random.nextFloat() < 0.2;
-        }
+    // draw — заранее выбранное случайное число из [0, 1)
+    private static boolean shouldComputerPlay(int policy, int handStrength, float equity, float draw) {
+        return draw < ComputerPolicy.playProbability(policy, handStrength, equity);
     }
 
     private int evaluateHand(List<Integer> hand) {
@@ -330,11 +476,21 @@ public class GameActivity extends AppCompatActivity {
         disableButtons();
         showCards(true);
 
-        int computerScore = evaluateHand(computerHand);
-        int playerScore = evaluateHand(playerHand);
+        int computerScore = currentRound.computerScore;
+        int playerScore = currentRound.playerScore;
+        int kickers = currentRound.kickers;
 
-        boolean isCorrectMove = (playerScore > computerScore) ||
-                (playerScore == computerScore && compareKickers(playerHand, computerHand) > 0);
+        // Ход оценивается по тому, что знал игрок; без таблиц — по итогу вскрытия
+        DatabaseHelper.HandRecord hand = gradeHand(true, false);
+        boolean isCorrectMove;
+        if (decisionGrader != null) {
+            isCorrectMove = hand.correct;
+            evLost += hand.evLoss;
+        } else {
+            isCorrectMove = (playerScore > computerScore) ||
+                    (playerScore == computerScore && kickers > 0);
+            hand.correct = isCorrectMove;
+        }
 
         if (isCorrectMove) {
             correctMoves++;
@@ -352,10 +508,10 @@ public class GameActivity extends AppCompatActivity {
             resultText.setText(String.format("Вы победили! (%s против %s)",
                     playerCombination, computerCombination));
         } else {
-            if (compareKickers(playerHand, computerHand) > 0) {
+            if (kickers > 0) {
                 resultText.setText(String.format("Вы победили! (%s против %s)",
                         playerCombination, computerCombination));
-            } else if (compareKickers(playerHand, computerHand) == 0){
+            } else if (kickers == 0){
                 resultText.setText(String.format("Ничья! (%s против %s)",
                         playerCombination, computerCombination));
             } else {
@@ -364,8 +520,9 @@ public class GameActivity extends AppCompatActivity {
             }
         }
 
+        recordHand(hand);
         updateStats();
-        handler.postDelayed(this::startNewRound, ROUND_DELAY_MS);
+        scheduleNextRound();
     }
 
     private int compareKickers(List<Integer> hand1, List<Integer> hand2) {
@@ -384,11 +541,19 @@ public class GameActivity extends AppCompatActivity {
         disableButtons();
         showCards(true);
 
-        int computerScore = evaluateHand(computerHand);
-        int playerScore = evaluateHand(playerHand);
+        int computerScore = currentRound.computerScore;
+        int playerScore = currentRound.playerScore;
 
-        boolean isCorrectFold = (playerScore < computerScore) ||
-                (playerScore == computerScore && compareKickers(playerHand, computerHand) < 0);
+        DatabaseHelper.HandRecord hand = gradeHand(true, true);
+        boolean isCorrectFold;
+        if (decisionGrader != null) {
+            isCorrectFold = hand.correct;
+            evLost += hand.evLoss;
+        } else {
+            isCorrectFold = (playerScore < computerScore) ||
+                    (playerScore == computerScore && currentRound.kickers < 0);
+            hand.correct = isCorrectFold;
+        }
 
         if (isCorrectFold) {
             correctMoves++;
@@ -397,8 +562,29 @@ public class GameActivity extends AppCompatActivity {
         totalGames++;
         playerFolds++;
         resultText.setText("Вы сбросили карты. Компьютер побеждает!");
+        recordHand(hand);
         updateStats();
-        handler.postDelayed(this::startNewRound, ROUND_DELAY_MS);
+        scheduleNextRound();
+    }
+
+    // Запись в базу не задерживает главный поток
+    private void recordHand(DatabaseHelper.HandRecord hand) {
+        executor.execute(() -> databaseHelper.recordHand(userId, hand));
+    }
+
+    private DatabaseHelper.HandRecord gradeHand(boolean playerMoved, boolean playerFolded) {
+        DatabaseHelper.HandRecord hand = new DatabaseHelper.HandRecord();
+        for (int card : playerHand) {
+            hand.playerCards |= 1L << card;
+        }
+        hand.playerMoved = playerMoved;
+        hand.playerFolded = playerFolded;
+        hand.computerPlayed = computerPlayed;
+        hand.computerPolicy = currentRound.computerPolicy;
+        if (decisionGrader != null) {
+            decisionGrader.grade(hand);
+        }
+        return hand;
     }
 
     private String getCombinationName(int combination) {
@@ -422,14 +608,26 @@ public class GameActivity extends AppCompatActivity {
         String stats = String.format(
                 "Всего игр: %d\n" +
                         "Сбросов игрока: %d\n" +
-                        "Точность: %.1f%%",
+                        "Точность: %.1f%%\n" +
+                        "Потеряно EV: %.2f",
                 totalGames,
                 playerFolds,
-                accuracyRate
+                accuracyRate,
+                evLost
         );
 
+        // Сколько раздач успел разыграть компьютер и насколько сошлась оценка
+        if (lastEstimate != null) {
+            stats += String.format("\nРасчёт компьютера: %d раздач за %d мс, ±%.3f",
+                    lastEstimate.iterations,
+                    lastEstimate.elapsedNanos / 1000000,
+                    lastEstimate.standardError);
+            if (!Double.isNaN(lastEstimateError)) {
+                stats += String.format(" (ошибка %.3f)", lastEstimateError);
+            }
+        }
+
         statsText.setText(stats);
-        saveStats();
     }
 
     private void resetStats() {
@@ -437,29 +635,34 @@ public class GameActivity extends AppCompatActivity {
         playerFolds = 0;
         correctMoves = 0;
         totalMoves = 0;
+        evLost = 0;
         isComputerTurnFirst = true;
+        // Текущий раунд прерывается: снимаются отложенные ход компьютера и следующий раунд,
+        // заготовленный раунд отбрасывается, и сразу начинается новый
+        handler.removeCallbacks(computerMoveTask);
+        handler.removeCallbacks(startRoundTask);
+        anytimeDecision.commit();
+        cancelPreparedRound();
+        executor.execute(() -> databaseHelper.resetGameStats(userId));
+        startNewRound();
         updateStats();
         Toast.makeText(this, "Статистика сброшена", Toast.LENGTH_SHORT).show();
     }
 
+    // Счётчики раздач пишутся в базу по мере игры, здесь сохраняется только очерёдность хода
     private void saveStats() {
-        SharedPreferences prefs = getSharedPreferences("PokerStats", MODE_PRIVATE);
-        prefs.edit()
-                .putInt("totalGames", totalGames)
-                .putInt("playerFolds", playerFolds)
-                .putInt("correctMoves", correctMoves)
-                .putInt("totalMoves", totalMoves)
-                .putBoolean("isComputerTurnFirst", isComputerTurnFirst)
-                .apply();
+        boolean computerTurnFirst = isComputerTurnFirst;
+        executor.execute(() -> databaseHelper.saveComputerTurnFirst(userId, computerTurnFirst));
     }
 
     private void loadStats() {
-        SharedPreferences prefs = getSharedPreferences("PokerStats", MODE_PRIVATE);
-        totalGames = prefs.getInt("totalGames", 0);
-        playerFolds = prefs.getInt("playerFolds", 0);
-        correctMoves = prefs.getInt("correctMoves", 0);
-        totalMoves = prefs.getInt("totalMoves", 0);
-        isComputerTurnFirst = prefs.getBoolean("isComputerTurnFirst", true);
+        DatabaseHelper.GameStats stats = databaseHelper.getGameStats(userId);
+        totalGames = stats.totalGames;
+        playerFolds = stats.playerFolds;
+        correctMoves = stats.correctMoves;
+        totalMoves = stats.totalMoves;
+        evLost = stats.evLost;
+        isComputerTurnFirst = stats.isComputerTurnFirst;
     }
 
     private void enableButtons() {
@@ -477,4 +680,15 @@ public class GameActivity extends AppCompatActivity {
         super.onPause();
         saveStats();
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        handler.removeCallbacksAndMessages(null);
+        cancelPreparedRound();
+        anytimeDecision.shutdown();
+        // Записи в базу, которые уже в очереди, должны завершиться
+        executor.shutdown();
+        roundExecutor.shutdown();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package fun.adun.pokerapp;
+
+import android.os.Bundle;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
+import android.widget.ListView;
+import android.widget.RadioGroup;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LeaderboardActivity extends AppCompatActivity {
+
+    private RadioGroup orderGroup;
+    private ListView leaderboardList;
+    private ArrayAdapter<String> adapter;
+    private DatabaseHelper databaseHelper;
+
+    private static final int TOP_SIZE = 50;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_leaderboard);
+
+        databaseHelper = new DatabaseHelper(this);
+        orderGroup = findViewById(R.id.orderGroup);
+        leaderboardList = findViewById(R.id.leaderboardList);
+
+        adapter = new ArrayAdapter<String>(this, android.R.layout.simple_list_item_1, new ArrayList<>()) {
+            @Override
+            public View getView(int position, View convertView, ViewGroup parent) {
+                TextView view = (TextView) super.getView(position, convertView, parent);
+                view.setTextColor(0xFFFFFFFF);
+                return view;
+            }
+        };
+        leaderboardList.setAdapter(adapter);
+
+        orderGroup.setOnCheckedChangeListener((group, checkedId) -> showLeaderboard());
+        showLeaderboard();
+    }
+
+    private void showLeaderboard() {
+        String order;
+        int checkedId = orderGroup.getCheckedRadioButtonId();
+        if (checkedId == R.id.orderGames) {
+            order = DatabaseHelper.ORDER_GAMES;
+        } else if (checkedId == R.id.orderQuiz) {
+            order = DatabaseHelper.ORDER_QUIZ;
+        } else {
+            order = DatabaseHelper.ORDER_ACCURACY;
+        }
+
+        List<DatabaseHelper.LeaderboardEntry> entries = databaseHelper.getLeaderboard(order, TOP_SIZE);
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            DatabaseHelper.LeaderboardEntry entry = entries.get(i);
+            rows.add(String.format("%d. %s — точность %.1f%%, игр %d, викторина %d",
+                    i + 1, entry.username, entry.accuracy, entry.totalGames, entry.correctAnswers));
+        }
+
+        adapter.clear();
+        adapter.addAll(rows);
+    }
+}
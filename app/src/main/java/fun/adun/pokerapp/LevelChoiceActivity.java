@@ -4,37 +4,95 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
+import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 
 public class LevelChoiceActivity extends AppCompatActivity {
 
+    // Уровень задаёт правило компьютера и сколько миллисекунд он считает шансы (не больше паузы в 1,5 с).
+    // Сила определяется в первую очередь правилом (рейтинг Эло в StrategyTournament): по комбинациям
+    // около 50, пропорционально шансам около 1000, порог шансов 0.5 около 2000. Бюджет меняет
+    // только точность оценки шансов: для пропорционального правила это не заметно, а у порога
+    // ошибка оценки у границы 0.5 стоит десятков пунктов, поэтому уровни 3 и 4 различаются бюджетом.
+    private static final long NO_SEARCH = 0;
+    private static final long SHORT_THINK_BUDGET_MS = 10;
+    private static final long FULL_THINK_BUDGET_MS = 1500;
+
+    private Button btnLevel1;
+    private Button btnLevel2;
     private Button btnLevel3;
+    private Button btnLevel4;
     private Button btnQuiz;
+    private Button btnOdds;
+    private Button btnLeaderboard;
+    private TextView tvWinRate;
+    private DatabaseHelper databaseHelper;
+    private long userId;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_level_choice);
 
+        userId = MainActivity.requireUserId(getIntent());
+        databaseHelper = new DatabaseHelper(this);
+
+        btnLevel1 = findViewById(R.id.level1);
+        btnLevel2 = findViewById(R.id.level2);
         btnLevel3 = findViewById(R.id.level3);
+        btnLevel4 = findViewById(R.id.level4);
         btnQuiz = findViewById(R.id.quiz);
+        btnOdds = findViewById(R.id.odds);
+        btnLeaderboard = findViewById(R.id.leaderboard);
+        tvWinRate = findViewById(R.id.textView);
+
+        btnLevel1.setOnClickListener(v -> startGame(ComputerPolicy.CATEGORY, NO_SEARCH));
+        btnLevel2.setOnClickListener(v -> startGame(ComputerPolicy.PROPORTIONAL, SHORT_THINK_BUDGET_MS));
+        btnLevel3.setOnClickListener(v -> startGame(ComputerPolicy.THRESHOLD, SHORT_THINK_BUDGET_MS));
+        btnLevel4.setOnClickListener(v -> startGame(ComputerPolicy.THRESHOLD, FULL_THINK_BUDGET_MS));
 
-        btnLevel3.setOnClickListener(new View.OnClickListener() {
+        btnQuiz.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                Intent intent = new Intent(LevelChoiceActivity.this, GameActivity.class);
+                Intent intent = new Intent(LevelChoiceActivity.this, QuizActivity.class);
+                intent.putExtra(MainActivity.EXTRA_USER_ID, userId);
                 startActivity(intent);
             }
         });
 
-        btnQuiz.setOnClickListener(new View.OnClickListener() {
+        btnOdds.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                Intent intent = new Intent(LevelChoiceActivity.this, QuizActivity.class);
+                Intent intent = new Intent(LevelChoiceActivity.this, OddsCalculatorActivity.class);
+                startActivity(intent);
+            }
+        });
+
+        btnLeaderboard.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                Intent intent = new Intent(LevelChoiceActivity.this, LeaderboardActivity.class);
                 startActivity(intent);
             }
         });
 
     }
+
+    private void startGame(int computerPolicy, long thinkBudgetMs) {
+        Intent intent = new Intent(LevelChoiceActivity.this, GameActivity.class);
+        intent.putExtra(MainActivity.EXTRA_USER_ID, userId);
+        intent.putExtra(GameActivity.EXTRA_COMPUTER_POLICY, computerPolicy);
+        intent.putExtra(GameActivity.EXTRA_THINK_BUDGET_MS, thinkBudgetMs);
+        startActivity(intent);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Точность текущего пользователя могла измениться после игры
+        DatabaseHelper.GameStats stats = databaseHelper.getGameStats(userId);
+        float accuracy = stats.totalMoves == 0 ? 0 : (stats.correctMoves * 100f / stats.totalMoves);
+        tvWinRate.setText(String.format("Win Rate: %.0f%%", accuracy));
+    }
 }
@@ -1,7 +1,10 @@
 package fun.adun.pokerapp;
 
 import android.content.Intent;
+import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
@@ -9,12 +12,25 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class MainActivity extends AppCompatActivity {
 
+    // Идентификатор вошедшего пользователя, передаётся дальше через Intent
+    public static final String EXTRA_USER_ID = "userId";
+
+    // Статистика версий до базы данных, переносится первому вошедшему пользователю
+    private static final String LEGACY_GAME_PREFS = "PokerStats";
+    private static final String LEGACY_QUIZ_PREFS = "QuizStats";
+
     private EditText etUsername, etPassword;
     private Button btnRegister, btnLogin;
     private TextView tvStatus;
     private DatabaseHelper databaseHelper;
+    // Перенос старой статистики идёт вне главного потока
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler handler = new Handler(Looper.getMainLooper());
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -60,12 +76,14 @@ public class MainActivity extends AppCompatActivity {
                 String username = etUsername.getText().toString();
                 String password = etPassword.getText().toString();
 
-                boolean isUserValid = databaseHelper.checkUser(username, password);
-                if (isUserValid) {
-                    tvStatus.setText("Вход выполнен!");
-                    Toast.makeText(MainActivity.this, "Добро пожаловать!", Toast.LENGTH_SHORT).show();
-                    Intent intent = new Intent(MainActivity.this, LevelChoiceActivity.class);
-                    startActivity(intent);
+                long userId = databaseHelper.getUserId(username, password);
+                if (userId != -1) {
+                    // Следующий экран читает статистику, поэтому открывается после переноса
+                    btnLogin.setEnabled(false);
+                    executor.execute(() -> {
+                        importLegacyStats(userId);
+                        handler.post(() -> openLevels(userId));
+                    });
                 } else {
                     tvStatus.setText("Ошибка входа");
                     Toast.makeText(MainActivity.this, "Неверный логин или пароль", Toast.LENGTH_SHORT).show();
@@ -73,4 +91,55 @@ public class MainActivity extends AppCompatActivity {
             }
         });
     }
-}
\ No newline at end of file
+
+    private void openLevels(long userId) {
+        btnLogin.setEnabled(true);
+        tvStatus.setText("Вход выполнен!");
+        Toast.makeText(MainActivity.this, "Добро пожаловать!", Toast.LENGTH_SHORT).show();
+        Intent intent = new Intent(MainActivity.this, LevelChoiceActivity.class);
+        intent.putExtra(EXTRA_USER_ID, userId);
+        startActivity(intent);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        handler.removeCallbacksAndMessages(null);
+        // Начатый перенос дописывается до конца
+        executor.shutdown();
+    }
+
+    // Идентификатор вошедшего пользователя из Intent экрана. Без него статистика
+    // записалась бы на несуществующего пользователя, поэтому экран сразу падает.
+    static long requireUserId(Intent intent) {
+        long userId = intent.getLongExtra(EXTRA_USER_ID, -1);
+        if (userId == -1) {
+            throw new IllegalStateException("Экран открыт без " + EXTRA_USER_ID);
+        }
+        return userId;
+    }
+
+    // Переносит статистику из SharedPreferences в базу один раз: после переноса настройки очищаются.
+    // Вызывается в потоке executor.
+    private void importLegacyStats(long userId) {
+        SharedPreferences gamePrefs = getSharedPreferences(LEGACY_GAME_PREFS, MODE_PRIVATE);
+        SharedPreferences quizPrefs = getSharedPreferences(LEGACY_QUIZ_PREFS, MODE_PRIVATE);
+        if (gamePrefs.getAll().isEmpty() && quizPrefs.getAll().isEmpty()) return;
+
+        DatabaseHelper.GameStats game = new DatabaseHelper.GameStats();
+        game.totalGames = gamePrefs.getInt("totalGames", 0);
+        game.playerFolds = gamePrefs.getInt("playerFolds", 0);
+        game.correctMoves = gamePrefs.getInt("correctMoves", 0);
+        game.totalMoves = gamePrefs.getInt("totalMoves", 0);
+        game.isComputerTurnFirst = gamePrefs.getBoolean("isComputerTurnFirst", true);
+
+        DatabaseHelper.QuizStats quiz = new DatabaseHelper.QuizStats();
+        quiz.correctAnswers = quizPrefs.getInt("correctAnswers", 0);
+        quiz.totalQuestionsAttempted = quizPrefs.getInt("totalQuestionsAttempted", 0);
+        quiz.lastAttemptTime = quizPrefs.getLong("lastAttemptTime", 0);
+
+        databaseHelper.importLegacyStats(userId, game, quiz);
+        gamePrefs.edit().clear().apply();
+        quizPrefs.edit().clear().apply();
+    }
+}
@@ -0,0 +1,413 @@
+package fun.adun.pokerapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Шансы на победу по известным картам игрока и соперника.
+// Сначала отдаёт быструю оценку методом Монте-Карло, затем в фоне уточняет её
+// полным перебором. Новый запрос отменяет текущий расчёт, а уже посчитанная часть
+// перебора сохраняется в кеше по маскам карт и продолжается при возврате к ним.
+// Если известных карт слишком мало, перебор занял бы часы и не запускается: вместо него
+// выборка добирается пачками до MAX_SAMPLES раздач, и оценка публикуется по мере уточнения.
+class OddsCalculator {
+
+    interface Listener {
+        // Вызывается из фонового потока
+        void onResult(Result result);
+    }
+
+    static final class Result {
+        final long playerMask;
+        final long opponentMask;
+        final double win;
+        final double tie;
+        final double loss;
+        final boolean exact;
+        // Оценка ещё уточняется; false для точного ответа и для выборки, набравшей MAX_SAMPLES
+        final boolean refining;
+        // Уточнение полным перебором, иначе добором выборки
+        final boolean enumerating;
+        // Доля выполненного перебора или набранной выборки, от 0 до 1
+        final double progress;
+        // Карты, которые повышают шансы игрока, по убыванию пользы
+        final int[] outs;
+
+        Result(long playerMask, long opponentMask, Counts counts, boolean exact, boolean refining,
+               boolean enumerating, double progress) {
+            this.playerMask = playerMask;
+            this.opponentMask = opponentMask;
+            double total = counts.total();
+            this.win = total == 0 ? 0 : counts.wins / total;
+            this.tie = total == 0 ? 0 : counts.ties / total;
+            this.loss = total == 0 ? 0 : counts.losses / total;
+            this.exact = exact;
+            this.refining = refining;
+            this.enumerating = enumerating;
+            this.progress = progress;
+            this.outs = counts.outs(win + tie / 2);
+        }
+    }
+
+    private static final int SAMPLE_COUNT = 50000;
+    // Предел выборки без полного перебора: стандартная ошибка шансов около 0.00025
+    static final long MAX_SAMPLES = 80L * SAMPLE_COUNT;
+    private static final int CACHE_SIZE = 64;
+    private static final long PUBLISH_INTERVAL_MS = 250;
+    // Предел сравнений рук в полном переборе, несколько секунд на телефоне.
+    // Без известных карт их около 4 * 10^12.
+    static final long MAX_EXACT_SHOWDOWNS = 1000000000L;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    // Доступ к кешу только из потока executor, поэтому синхронизация не нужна
+    private final Map<Key, Partial> cache = new LinkedHashMap<Key, Partial>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Partial> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    private Future<?> currentTask;
+
+    void compute(long playerMask, long opponentMask, Listener listener) {
+        if ((playerMask & opponentMask) != 0) {
+            throw new IllegalArgumentException("Карта не может быть у обоих игроков");
+        }
+        if (Long.bitCount(playerMask) > 5 || Long.bitCount(opponentMask) > 5) {
+            throw new IllegalArgumentException("В руке не больше пяти карт");
+        }
+        cancel();
+        currentTask = executor.submit(() -> run(playerMask, opponentMask, listener));
+    }
+
+    void cancel() {
+        if (currentTask != null) {
+            currentTask.cancel(true);
+            currentTask = null;
+        }
+    }
+
+    void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    private void run(long playerMask, long opponentMask, Listener listener) {
+        Key key = new Key(playerMask, opponentMask);
+        Partial partial = cache.get(key);
+        if (partial == null) {
+            partial = new Partial(playerMask, opponentMask);
+            cache.put(key, partial);
+        }
+
+        if (partial.finished) {
+            listener.onResult(new Result(playerMask, opponentMask, partial.exact, true, false, true, 1));
+            return;
+        }
+        if (partial.sampled == null) {
+            partial.sampled = sample(partial);
+            partial.samples = SAMPLE_COUNT;
+        }
+        if (Thread.currentThread().isInterrupted()) return;
+        if (partial.enumerable) {
+            listener.onResult(new Result(playerMask, opponentMask, blend(partial), false, true, true,
+                    partial.progress()));
+            enumerate(partial, listener);
+        } else {
+            listener.onResult(new Result(playerMask, opponentMask, partial.sampled, false,
+                    partial.samples < MAX_SAMPLES, false, partial.progress()));
+            resample(partial, listener);
+        }
+    }
+
+    // Добор выборки пачками по SAMPLE_COUNT. В кеш попадают только целые пачки,
+    // поэтому прерванный расчёт продолжается с набранной выборки.
+    private void resample(Partial partial, Listener listener) {
+        long lastPublish = System.currentTimeMillis();
+        while (partial.samples < MAX_SAMPLES) {
+            Counts batch = sample(partial);
+            if (Thread.currentThread().isInterrupted()) return;
+            partial.sampled.addScaled(batch, 1);
+            partial.samples += SAMPLE_COUNT;
+
+            long now = System.currentTimeMillis();
+            if (partial.samples >= MAX_SAMPLES) {
+                listener.onResult(new Result(partial.playerMask, partial.opponentMask, partial.sampled,
+                        false, false, false, 1));
+            } else if (now - lastPublish >= PUBLISH_INTERVAL_MS) {
+                lastPublish = now;
+                listener.onResult(new Result(partial.playerMask, partial.opponentMask, partial.sampled,
+                        false, true, false, partial.progress()));
+            }
+        }
+    }
+
+    // Оценка во время перебора: пройденные добивки руки игрока посчитаны точно, остальные —
+    // по выборке, приведённой к их доле. У каждой добивки одинаковое число рук соперника,
+    // поэтому к концу перебора оценка сходится к точному ответу.
+    private static Counts blend(Partial partial) {
+        Counts counts = partial.exact.copy();
+        double remaining = (double) (partial.total - partial.done) * partial.opponentsPerDraw;
+        counts.addScaled(partial.sampled, remaining / partial.sampled.total());
+        return counts;
+    }
+
+    private static Counts sample(Partial partial) {
+        int[] deck = partial.available.clone();
+        int[] hand = new int[5];
+        int[] opponentHand = new int[5];
+        System.arraycopy(partial.playerCards, 0, hand, 0, partial.playerCards.length);
+        System.arraycopy(partial.opponentCards, 0, opponentHand, 0, partial.opponentCards.length);
+        int playerMissing = 5 - partial.playerCards.length;
+        int opponentMissing = 5 - partial.opponentCards.length;
+
+        Random random = new Random();
+        Counts counts = new Counts();
+        for (int s = 0; s < SAMPLE_COUNT; s++) {
+            // Частичное перемешивание: берём только нужное число карт
+            for (int i = 0; i < playerMissing + opponentMissing; i++) {
+                int j = i + random.nextInt(deck.length - i);
+                int tmp = deck[i];
+                deck[i] = deck[j];
+                deck[j] = tmp;
+            }
+            for (int i = 0; i < playerMissing; i++) {
+                hand[5 - playerMissing + i] = deck[i];
+            }
+            for (int i = 0; i < opponentMissing; i++) {
+                opponentHand[5 - opponentMissing + i] = deck[playerMissing + i];
+            }
+            int result = Integer.compare(HandEvaluator.score(hand), HandEvaluator.score(opponentHand));
+            counts.add(result > 0 ? 1 : 0, result == 0 ? 1 : 0, result < 0 ? 1 : 0,
+                    deck, playerMissing);
+        }
+        return counts;
+    }
+
+    private void enumerate(Partial partial, Listener listener) {
+        int[] available = partial.available;
+        int playerMissing = 5 - partial.playerCards.length;
+
+        // Все варианты добивки руки соперника считаются один раз на запуск
+        int opponentMissing = 5 - partial.opponentCards.length;
+        int opponentCount = (int) binomial(available.length, opponentMissing);
+        long[] opponentMasks = new long[opponentCount];
+        int[] opponentScores = new int[opponentCount];
+        int[] opponentHand = new int[5];
+        System.arraycopy(partial.opponentCards, 0, opponentHand, 0, partial.opponentCards.length);
+        int[] combination = firstCombination(opponentMissing);
+        for (int o = 0; o < opponentCount; o++) {
+            long mask = 0;
+            for (int i = 0; i < opponentMissing; i++) {
+                int card = available[combination[i]];
+                opponentHand[5 - opponentMissing + i] = card;
+                mask |= 1L << card;
+            }
+            opponentMasks[o] = mask;
+            opponentScores[o] = HandEvaluator.score(opponentHand);
+            nextCombination(combination, available.length);
+            if ((o & 0xFFFF) == 0 && Thread.currentThread().isInterrupted()) return;
+        }
+
+        int[] hand = new int[5];
+        System.arraycopy(partial.playerCards, 0, hand, 0, partial.playerCards.length);
+        int[] drawn = new int[playerMissing];
+        long lastPublish = System.currentTimeMillis();
+        while (!partial.finished) {
+            if (Thread.currentThread().isInterrupted()) return;
+
+            long playerMask = 0;
+            for (int i = 0; i < playerMissing; i++) {
+                int card = available[partial.cursor[i]];
+                hand[5 - playerMissing + i] = card;
+                drawn[i] = card;
+                playerMask |= 1L << card;
+            }
+            int score = HandEvaluator.score(hand);
+            long wins = 0;
+            long ties = 0;
+            long losses = 0;
+            for (int o = 0; o < opponentCount; o++) {
+                if ((opponentMasks[o] & playerMask) != 0) continue;
+                int opponentScore = opponentScores[o];
+                if (score > opponentScore) wins++;
+                else if (score == opponentScore) ties++;
+                else losses++;
+            }
+            partial.exact.add(wins, ties, losses, drawn, playerMissing);
+            partial.done++;
+            partial.finished = !nextCombination(partial.cursor, available.length);
+
+            long now = System.currentTimeMillis();
+            if (!partial.finished && now - lastPublish >= PUBLISH_INTERVAL_MS) {
+                lastPublish = now;
+                listener.onResult(new Result(partial.playerMask, partial.opponentMask,
+                        blend(partial), false, true, true, partial.progress()));
+            }
+        }
+        listener.onResult(new Result(partial.playerMask, partial.opponentMask, partial.exact, true, false, true, 1));
+    }
+
+    private static int[] firstCombination(int size) {
+        int[] combination = new int[size];
+        for (int i = 0; i < size; i++) {
+            combination[i] = i;
+        }
+        return combination;
+    }
+
+    // Следующее сочетание в лексикографическом порядке; false, если сочетания кончились
+    private static boolean nextCombination(int[] combination, int n) {
+        int k = combination.length;
+        int i = k - 1;
+        while (i >= 0 && combination[i] == n - k + i) {
+            i--;
+        }
+        if (i < 0) return false;
+        combination[i]++;
+        for (int j = i + 1; j < k; j++) {
+            combination[j] = combination[j - 1] + 1;
+        }
+        return true;
+    }
+
+    private static long binomial(int n, int k) {
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+
+    private static int[] cardsOf(long mask) {
+        int[] cards = new int[Long.bitCount(mask)];
+        int i = 0;
+        for (int card = 0; card < 52; card++) {
+            if ((mask & (1L << card)) != 0) cards[i++] = card;
+        }
+        return cards;
+    }
+
+    // Счётчики исходов, в том числе отдельно для каждой добранной карты игрока.
+    // Дробные, потому что промежуточная оценка складывает перебор с масштабированной выборкой.
+    private static final class Counts {
+        double wins;
+        double ties;
+        double losses;
+        final double[] cardPoints = new double[52];
+        final double[] cardTotals = new double[52];
+
+        void add(long wins, long ties, long losses, int[] drawn, int drawnCount) {
+            this.wins += wins;
+            this.ties += ties;
+            this.losses += losses;
+            long total = wins + ties + losses;
+            for (int i = 0; i < drawnCount; i++) {
+                cardPoints[drawn[i]] += 2 * wins + ties;
+                cardTotals[drawn[i]] += 2 * total;
+            }
+        }
+
+        void addScaled(Counts other, double factor) {
+            wins += other.wins * factor;
+            ties += other.ties * factor;
+            losses += other.losses * factor;
+            for (int card = 0; card < 52; card++) {
+                cardPoints[card] += other.cardPoints[card] * factor;
+                cardTotals[card] += other.cardTotals[card] * factor;
+            }
+        }
+
+        Counts copy() {
+            Counts copy = new Counts();
+            copy.addScaled(this, 1);
+            return copy;
+        }
+
+        double total() {
+            return wins + ties + losses;
+        }
+
+        int[] outs(double equity) {
+            final double[] cardEquity = new double[52];
+            List<Integer> outs = new ArrayList<>();
+            for (int card = 0; card < 52; card++) {
+                if (cardTotals[card] == 0) continue;
+                cardEquity[card] = cardPoints[card] / cardTotals[card];
+                if (cardEquity[card] > equity + 1e-9) outs.add(card);
+            }
+            Collections.sort(outs, (a, b) -> Double.compare(cardEquity[b], cardEquity[a]));
+            int[] result = new int[outs.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = outs.get(i);
+            }
+            return result;
+        }
+    }
+
+    private static final class Partial {
+        final long playerMask;
+        final long opponentMask;
+        final int[] playerCards;
+        final int[] opponentCards;
+        final int[] available;
+        // Число добивок руки игрока и рук соперника без общих карт на каждую из них
+        final long total;
+        final long opponentsPerDraw;
+        // Перебор укладывается в MAX_EXACT_SHOWDOWNS
+        final boolean enumerable;
+
+        Counts sampled;
+        long samples;
+        final Counts exact = new Counts();
+        final int[] cursor;
+        long done;
+        boolean finished;
+
+        Partial(long playerMask, long opponentMask) {
+            this.playerMask = playerMask;
+            this.opponentMask = opponentMask;
+            playerCards = cardsOf(playerMask);
+            opponentCards = cardsOf(opponentMask);
+            available = cardsOf(~(playerMask | opponentMask) & ((1L << 52) - 1));
+            cursor = firstCombination(5 - playerCards.length);
+            total = binomial(available.length, cursor.length);
+            int opponentMissing = 5 - opponentCards.length;
+            opponentsPerDraw = binomial(available.length - cursor.length, opponentMissing);
+            // На каждую добивку игрока проверяются все добивки соперника, в том числе пересекающиеся
+            double showdowns = (double) total * binomial(available.length, opponentMissing);
+            enumerable = showdowns <= MAX_EXACT_SHOWDOWNS;
+        }
+
+        double progress() {
+            return enumerable ? (double) done / total : Math.min(1, (double) samples / MAX_SAMPLES);
+        }
+    }
+
+    private static final class Key {
+        final long playerMask;
+        final long opponentMask;
+
+        Key(long playerMask, long opponentMask) {
+            this.playerMask = playerMask;
+            this.opponentMask = opponentMask;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return playerMask == other.playerMask && opponentMask == other.opponentMask;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(playerMask) * 31 + Long.hashCode(opponentMask);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package fun.adun.pokerapp;
+
+import android.graphics.Color;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.Button;
+import android.widget.GridLayout;
+import android.widget.ImageView;
+import android.widget.RadioGroup;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+public class OddsCalculatorActivity extends AppCompatActivity {
+
+    // UI элементы
+    private RadioGroup targetGroup;
+    private GridLayout cardGrid;
+    private TextView oddsText;
+    private TextView progressText;
+    private TextView outsText;
+    private Button clearButton;
+    private final ImageView[] cardViews = new ImageView[52];
+
+    // Выбранные карты в виде битовых масок, бит cardId = масть * 13 + ранг
+    private long playerMask = 0;
+    private long opponentMask = 0;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private OddsCalculator calculator;
+
+    // Константы
+    private static final int MAX_CARDS = 5;
+    private static final int MAX_OUTS_SHOWN = 8;
+    private static final int CARD_PADDING_DP = 2;
+    private static final int PLAYER_COLOR = 0xFF2E7D32;
+    private static final int OPPONENT_COLOR = 0xFFC62828;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_odds_calculator);
+        calculator = new OddsCalculator();
+        initViews();
+        buildCardGrid();
+        recalculate();
+    }
+
+    private void initViews() {
+        targetGroup = findViewById(R.id.targetGroup);
+        cardGrid = findViewById(R.id.cardGrid);
+        oddsText = findViewById(R.id.oddsText);
+        progressText = findViewById(R.id.progressText);
+        outsText = findViewById(R.id.outsText);
+        clearButton = findViewById(R.id.clearButton);
+
+        clearButton.setOnClickListener(v -> clearCards());
+    }
+
+    private void buildCardGrid() {
+        int padding = CardViews.dpToPx(this, CARD_PADDING_DP);
+        for (int cardId = 0; cardId < 52; cardId++) {
+            ImageView card = new ImageView(this);
+            card.setImageResource(CardViews.getCardResource(this, cardId));
+            card.setAdjustViewBounds(true);
+            card.setPadding(padding, padding, padding, padding);
+
+            GridLayout.LayoutParams params = new GridLayout.LayoutParams(
+                    GridLayout.spec(cardId / 13),
+                    GridLayout.spec(cardId % 13, 1f)
+            );
+            params.width = 0;
+            card.setLayoutParams(params);
+
+            final int id = cardId;
+            card.setOnClickListener(v -> toggleCard(id));
+            cardViews[cardId] = card;
+            cardGrid.addView(card);
+        }
+    }
+
+    private void toggleCard(int cardId) {
+        long bit = 1L << cardId;
+        boolean forPlayer = targetGroup.getCheckedRadioButtonId() == R.id.playerTarget;
+
+        if ((playerMask & bit) != 0) {
+            playerMask &= ~bit;
+        } else if ((opponentMask & bit) != 0) {
+            opponentMask &= ~bit;
+        } else {
+            long mask = forPlayer ? playerMask : opponentMask;
+            if (Long.bitCount(mask) >= MAX_CARDS) {
+                Toast.makeText(this, "В руке не больше пяти карт", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            if (forPlayer) {
+                playerMask |= bit;
+            } else {
+                opponentMask |= bit;
+            }
+        }
+
+        updateCardView(cardId);
+        recalculate();
+    }
+
+    private void updateCardView(int cardId) {
+        long bit = 1L << cardId;
+        if ((playerMask & bit) != 0) {
+            cardViews[cardId].setBackgroundColor(PLAYER_COLOR);
+        } else if ((opponentMask & bit) != 0) {
+            cardViews[cardId].setBackgroundColor(OPPONENT_COLOR);
+        } else {
+            cardViews[cardId].setBackgroundColor(Color.TRANSPARENT);
+        }
+    }
+
+    private void clearCards() {
+        playerMask = 0;
+        opponentMask = 0;
+        for (int cardId = 0; cardId < 52; cardId++) {
+            updateCardView(cardId);
+        }
+        recalculate();
+    }
+
+    private void recalculate() {
+        progressText.setText("Считаем...");
+        calculator.compute(playerMask, opponentMask, result -> handler.post(() -> showResult(result)));
+    }
+
+    private void showResult(OddsCalculator.Result result) {
+        // Результат для уже изменённого набора карт не показываем
+        if (result.playerMask != playerMask || result.opponentMask != opponentMask) return;
+
+        oddsText.setText(String.format(
+                "Победа: %.1f%%\nНичья: %.1f%%\nПоражение: %.1f%%",
+                result.win * 100,
+                result.tie * 100,
+                result.loss * 100
+        ));
+
+        if (result.exact) {
+            progressText.setText("Точный расчёт");
+        } else if (!result.refining) {
+            progressText.setText("Приблизительно; для точного расчёта выберите больше карт");
+        } else if (result.enumerating) {
+            progressText.setText(String.format("Приблизительно, точный расчёт: %.0f%%",
+                    result.progress * 100));
+        } else {
+            progressText.setText(String.format("Приблизительно, уточняем: %.0f%%",
+                    result.progress * 100));
+        }
+
+        if (result.outs.length == 0) {
+            outsText.setText("Аутов нет");
+        } else {
+            StringBuilder outs = new StringBuilder("Ауты: " + result.outs.length + " (");
+            for (int i = 0; i < Math.min(result.outs.length, MAX_OUTS_SHOWN); i++) {
+                if (i > 0) outs.append(", ");
+                outs.append(HandEvaluator.cardName(result.outs[i]));
+            }
+            if (result.outs.length > MAX_OUTS_SHOWN) outs.append(", ...");
+            outs.append(")");
+            outsText.setText(outs.toString());
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        calculator.shutdown();
+        handler.removeCallbacksAndMessages(null);
+    }
+}
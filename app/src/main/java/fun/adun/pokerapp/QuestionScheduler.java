@@ -0,0 +1,155 @@
+package fun.adun.pokerapp;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Интервальное повторение вопросов викторины (упрощённый SM-2).
+// Состояние каждого вопроса хранится в базе по пользователю. В памяти держится только
+// очередь с приоритетом по сроку повторения, которая подгружается страницами
+// из вопросов, срок которых уже наступил. Вся работа с базой — в фоновом потоке.
+class QuestionScheduler {
+
+    interface Callback {
+        // Вызывается в главном потоке; -1, если повторять пока нечего
+        void onQuestion(int questionId);
+    }
+
+    private static final int PAGE_SIZE = 50;
+    private static final float INITIAL_EASE = 2.5f;
+    private static final float MIN_EASE = 1.3f;
+    private static final long FIRST_INTERVAL = TimeUnit.DAYS.toMillis(1);
+    private static final long SECOND_INTERVAL = TimeUnit.DAYS.toMillis(6);
+    private static final long RETRY_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+    // Предел интервала, чтобы умножение на ease не переполняло long
+    private static final long MAX_INTERVAL = TimeUnit.DAYS.toMillis(3650);
+
+    private final DatabaseHelper databaseHelper;
+    private final long userId;
+    private final int[] questionIds;
+    private final Clock clock;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile boolean shutDown = false;
+
+    // Доступ к полям ниже только из потока executor
+    private final PriorityQueue<DatabaseHelper.ReviewState> queue = new PriorityQueue<>(PAGE_SIZE,
+            (a, b) -> a.dueAt != b.dueAt ? Long.compare(a.dueAt, b.dueAt) : Integer.compare(a.questionId, b.questionId));
+    private final Set<Integer> queued = new HashSet<>();
+    // Выданные вопросы, ответ на которые ещё не записан
+    private final Map<Integer, DatabaseHelper.ReviewState> shown = new HashMap<>();
+    private boolean seeded = false;
+    private long pageDue = -1;
+    private int pageId = -1;
+
+    // Часы экрана викторины; в тестах подменяются, чтобы сроки повторения наступали без ожидания
+    QuestionScheduler(DatabaseHelper databaseHelper, long userId, int[] questionIds, Clock clock) {
+        this.databaseHelper = databaseHelper;
+        this.userId = userId;
+        this.questionIds = questionIds;
+        this.clock = clock;
+    }
+
+    void next(Callback callback) {
+        // Таймеры экрана могут сработать уже после shutdown
+        if (shutDown) return;
+        executor.execute(() -> {
+            long now = clock.millis();
+            if (!seeded) {
+                // Добавляются только вопросы, которых у пользователя ещё нет, остальные не меняются
+                databaseHelper.seedReviews(userId, questionIds, INITIAL_EASE);
+                seeded = true;
+            }
+            if (queue.isEmpty() || queue.peek().dueAt > now) {
+                loadPage(now);
+            }
+
+            DatabaseHelper.ReviewState head = queue.peek();
+            int questionId = -1;
+            if (head != null && head.dueAt <= now) {
+                queue.poll();
+                queued.remove(head.questionId);
+                shown.put(head.questionId, head);
+                questionId = head.questionId;
+            }
+            final int result = questionId;
+            mainHandler.post(() -> {
+                if (!shutDown) callback.onQuestion(result);
+            });
+        });
+    }
+
+    // Сохраняет ответ в статистику викторины и пересчитывает срок повторения вопроса
+    void recordAnswer(int questionId, boolean isCorrect, long attemptTime) {
+        if (shutDown) return;
+        executor.execute(() -> {
+            databaseHelper.recordQuizAnswer(userId, isCorrect, attemptTime);
+
+            DatabaseHelper.ReviewState review = shown.remove(questionId);
+            if (review == null) {
+                review = new DatabaseHelper.ReviewState();
+                review.questionId = questionId;
+                review.ease = INITIAL_EASE;
+            }
+
+            // Срок считается от момента ответа, а не от того, когда до записи дошла очередь
+            long now = attemptTime;
+            if (isCorrect) {
+                review.repetitions++;
+                if (review.repetitions == 1) {
+                    review.intervalMs = FIRST_INTERVAL;
+                } else if (review.repetitions == 2) {
+                    review.intervalMs = SECOND_INTERVAL;
+                } else {
+                    review.intervalMs = Math.min(MAX_INTERVAL, (long) (review.intervalMs * review.ease));
+                }
+                review.ease += 0.1f;
+            } else {
+                review.repetitions = 0;
+                review.lapses++;
+                review.intervalMs = RETRY_INTERVAL;
+                review.ease = Math.max(MIN_EASE, review.ease - 0.2f);
+            }
+            review.dueAt = now + review.intervalMs;
+            databaseHelper.saveReview(userId, review);
+
+            // Вопрос с ошибкой вернётся в этой же сессии, когда подойдёт срок
+            if (queued.add(questionId)) {
+                queue.add(review);
+            }
+        });
+    }
+
+    // Уже принятые ответы дописываются в базу, новые вопросы экрану не выдаются
+    void shutdown() {
+        shutDown = true;
+        executor.shutdown();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    // Следующая страница наступивших сроков после последней загруженной позиции
+    private void loadPage(long now) {
+        List<DatabaseHelper.ReviewState> page =
+                databaseHelper.getDueReviews(userId, now, pageDue, pageId, PAGE_SIZE);
+        if (page.isEmpty()) return;
+        for (DatabaseHelper.ReviewState review : page) {
+            // Выданный, но ещё не отвеченный вопрос в базе со старым сроком — не повторяем его
+            if (!shown.containsKey(review.questionId) && queued.add(review.questionId)) {
+                queue.add(review);
+            }
+        }
+        DatabaseHelper.ReviewState last = page.get(page.size() - 1);
+        pageDue = last.dueAt;
+        pageId = last.questionId;
+    }
+}
@@ -1,18 +1,22 @@
 package fun.adun.pokerapp;
 
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.os.CountDownTimer;
+import android.os.Handler;
 import android.view.View;
 import android.widget.Button;
 import android.widget.RadioButton;
 import android.widget.RadioGroup;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AppCompatActivity;
+import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class QuizActivity extends AppCompatActivity {
@@ -24,21 +28,34 @@ public class QuizActivity extends AppCompatActivity {
     private TextView timerText;
     private TextView statsText;
 
-    private List<Question> questions;
+    private Map<Integer, Question> questions;
+    private QuestionScheduler scheduler;
     private Question currentQuestion;
     private int correctAnswers = 0;
     private int totalQuestionsAttempted = 0;
     private long lastAttemptTime = 0;
     private static final long COOLDOWN_PERIOD = TimeUnit.HOURS.toMillis(1); // 1 час
+    private static final long RESULT_DELAY_MS = 2000;
+    private final Handler handler = new Handler();
+    // Показ следующего вопроса после результата; один объект на все ответы
+    private final Runnable nextQuestionTask = this::finishResult;
+    private DatabaseHelper databaseHelper;
+    private long userId;
+    // Одни часы для перерыва между ответами и для сроков повторения
+    private Clock clock;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_quiz);
+        userId = MainActivity.requireUserId(getIntent());
+        clock = createClock();
+        databaseHelper = createDatabaseHelper();
 
         initViews();
         loadStats();
         initQuestions();
+        scheduler = new QuestionScheduler(databaseHelper, userId, questionIds(), clock);
         showNewQuestion();
         updateTimer();
     }
@@ -55,39 +72,70 @@ public class QuizActivity extends AppCompatActivity {
     }
 
     private void initQuestions() {
-        questions = new ArrayList<>();
+        questions = new HashMap<>();
 
-        // Добавляем вопросы (вопрос, правильный ответ, варианты)
-        questions.add(new Question(
+        // Добавляем вопросы (постоянный номер, вопрос, правильный ответ, варианты).
+        // Номер хранится в базе вместе с историей ответов, менять его нельзя.
+        addQuestion(new Question(1,
                 "Какая вероятность выпадения каре?",
                 "0.024%",
                 new String[]{"0.5%", "1.2%", "5%"}
         ));
 
-        questions.add(new Question(
+        addQuestion(new Question(2,
                 "Какова вероятность получить флеш?",
                 "0.197%",
                 new String[]{"1.5%", "3.2%", "0.5%"}
         ));
 
-        questions.add(new Question(
+        addQuestion(new Question(3,
                 "Сколько существует различных комбинаций карт в покере?",
                 "2,598,960",
                 new String[]{"100,000", "1,000,000", "5,000,000"}
         ));
+    }
+
+    private void addQuestion(Question question) {
+        questions.put(question.getId(), question);
+    }
+
+    private int[] questionIds() {
+        int[] ids = new int[questions.size()];
+        int i = 0;
+        for (int id : questions.keySet()) {
+            ids[i++] = id;
+        }
+        return ids;
+    }
 
-        Collections.shuffle(questions);
+    // Часы подменяются в тестах, чтобы перерыв и сроки повторения истекали без ожидания
+    @VisibleForTesting
+    Clock createClock() {
+        return Clock.systemUTC();
     }
 
+    @VisibleForTesting
+    DatabaseHelper createDatabaseHelper() {
+        return new DatabaseHelper(this);
+    }
+
+    // Следующий вопрос выбирает планировщик повторений, ответ приходит асинхронно
     private void showNewQuestion() {
-        if (questions.isEmpty()) {
-            questionText.setText("Все вопросы пройдены!");
+        scheduler.next(this::showQuestion);
+    }
+
+    private void showQuestion(int questionId) {
+        Question question = questions.get(questionId);
+        if (question == null) {
+            currentQuestion = null;
+            questionText.setText("Все вопросы повторены! Возвращайтесь позже");
             answersGroup.setVisibility(View.GONE);
             submitButton.setEnabled(false);
             return;
         }
 
-        currentQuestion = questions.remove(0);
+        currentQuestion = question;
+        answersGroup.setVisibility(View.VISIBLE);
         questionText.setText(currentQuestion.getQuestion());
 
         List<String> answers = new ArrayList<>();
@@ -107,6 +155,7 @@ public class QuizActivity extends AppCompatActivity {
     }
 
     private void checkAnswer() {
+        if (currentQuestion == null) return;
         int selectedId = answersGroup.getCheckedRadioButtonId();
         if (selectedId == -1) {
             Toast.makeText(this, "Выберите ответ", Toast.LENGTH_SHORT).show();
@@ -117,6 +166,8 @@ public class QuizActivity extends AppCompatActivity {
         boolean isCorrect = selectedRadioButton.getText().equals(currentQuestion.getCorrectAnswer());
 
         totalQuestionsAttempted++;
+        lastAttemptTime = clock.millis();
+        scheduler.recordAnswer(currentQuestion.getId(), isCorrect, lastAttemptTime);
         if (isCorrect) {
             correctAnswers++;
             resultText.setTextColor(getResources().getColor(android.R.color.holo_green_light));
@@ -128,28 +179,25 @@ public class QuizActivity extends AppCompatActivity {
 
         resultText.setVisibility(View.VISIBLE);
         submitButton.setEnabled(false);
-        lastAttemptTime = System.currentTimeMillis();
-        saveStats();
-
-        new CountDownTimer(2000, 1000) {
-            public void onTick(long millisUntilFinished) {}
-            public void onFinish() {
-                showNewQuestion();
-                submitButton.setEnabled(canAnswer());
-                updateStats();
-            }
-        }.start();
+
+        handler.postDelayed(nextQuestionTask, RESULT_DELAY_MS);
+    }
+
+    private void finishResult() {
+        showNewQuestion();
+        submitButton.setEnabled(canAnswer());
+        updateStats();
     }
 
     private boolean canAnswer() {
-        long timeSinceLastAttempt = System.currentTimeMillis() - lastAttemptTime;
+        long timeSinceLastAttempt = clock.millis() - lastAttemptTime;
         return timeSinceLastAttempt > COOLDOWN_PERIOD;
     }
 
     private void updateTimer() {
         new CountDownTimer(Long.MAX_VALUE, 1000) {
             public void onTick(long millisUntilFinished) {
-                long timeSinceLastAttempt = System.currentTimeMillis() - lastAttemptTime;
+                long timeSinceLastAttempt = clock.millis() - lastAttemptTime;
                 long remainingTime = COOLDOWN_PERIOD - timeSinceLastAttempt;
 
                 if (remainingTime > 0) {
@@ -168,6 +216,13 @@ public class QuizActivity extends AppCompatActivity {
         }.start();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        handler.removeCallbacks(nextQuestionTask);
+        scheduler.shutdown();
+    }
+
     private void updateStats() {
         String stats = String.format("Правильных ответов: %d/%d (%.1f%%)",
                 correctAnswers,
@@ -176,34 +231,28 @@ public class QuizActivity extends AppCompatActivity {
         statsText.setText(stats);
     }
 
-    private void saveStats() {
-        SharedPreferences prefs = getSharedPreferences("QuizStats", MODE_PRIVATE);
-        prefs.edit()
-                .putInt("correctAnswers", correctAnswers)
-                .putInt("totalQuestionsAttempted", totalQuestionsAttempted)
-                .putLong("lastAttemptTime", lastAttemptTime)
-                .apply();
-    }
-
     private void loadStats() {
-        SharedPreferences prefs = getSharedPreferences("QuizStats", MODE_PRIVATE);
-        correctAnswers = prefs.getInt("correctAnswers", 0);
-        totalQuestionsAttempted = prefs.getInt("totalQuestionsAttempted", 0);
-        lastAttemptTime = prefs.getLong("lastAttemptTime", 0);
+        DatabaseHelper.QuizStats stats = databaseHelper.getQuizStats(userId);
+        correctAnswers = stats.correctAnswers;
+        totalQuestionsAttempted = stats.totalQuestionsAttempted;
+        lastAttemptTime = stats.lastAttemptTime;
         updateStats();
     }
 
     private static class Question {
+        private final int id;
         private final String question;
         private final String correctAnswer;
         private final String[] wrongAnswers;
 
-        public Question(String question, String correctAnswer, String[] wrongAnswers) {
+        public Question(int id, String question, String correctAnswer, String[] wrongAnswers) {
+            this.id = id;
             this.question = question;
             this.correctAnswer = correctAnswer;
             this.wrongAnswers = wrongAnswers;
         }
 
+        public int getId() { return id; }
         public String getQuestion() { return question; }
         public String getCorrectAnswer() { return correctAnswer; }
         public String[] getWrongAnswers() { return wrongAnswers; }
@@ -0,0 +1,243 @@
+package fun.adun.pokerapp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+// Точные шансы одного взвешенного диапазона рук против другого.
+// Диапазон — массив весов длины EquityTable.HAND_COUNT, индекс — номер руки по маске карт
+// (EquityTable.index, cardId = suit * 13 + rank). Пары рук с общими картами не учитываются.
+// Руки проходятся по возрастанию силы, вес более слабых непересекающихся рук соперника
+// считается через SubsetSums, как в генераторе таблиц. Порядок рук (HandOrder) делится на отрезки,
+// которые считаются параллельно: сначала каждый отрезок суммирует руки соперника,
+// затем префиксные суммы дают каждому отрезку начальное состояние.
+final class RangeEquity {
+
+    static final class Result {
+        // Доли веса непересекающихся пар рук, где первый диапазон выигрывает, играет вничью, проигрывает
+        final double win;
+        final double tie;
+        final double loss;
+        // Суммарный вес непересекающихся пар рук
+        final double weight;
+
+        Result(double win, double tie, double loss) {
+            this.weight = win + tie + loss;
+            this.win = weight == 0 ? 0 : win / weight;
+            this.tie = weight == 0 ? 0 : tie / weight;
+            this.loss = weight == 0 ? 0 : loss / weight;
+        }
+
+        double equity() {
+            return win + tie / 2;
+        }
+    }
+
+    private static final int CACHE_SIZE = 16;
+
+    private final ForkJoinPool pool;
+    private final Map<Key, Result> cache = new LinkedHashMap<Key, Result>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    RangeEquity() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    RangeEquity(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Долгая операция при первом вызове, вызывать не из главного потока
+    Result compute(float[] range, float[] opponentRange) {
+        if (range.length != EquityTable.HAND_COUNT || opponentRange.length != EquityTable.HAND_COUNT) {
+            throw new IllegalArgumentException("Диапазон должен содержать вес каждой руки");
+        }
+        Key key = new Key(hash(range), hash(opponentRange));
+        synchronized (cache) {
+            Result cached = cache.get(key);
+            if (cached != null) return cached;
+        }
+
+        HandOrder order = HandOrder.get();
+        int[] tileGroups = order.tiles(pool.getParallelism());
+        int tileCount = tileGroups.length - 1;
+
+        // Вес рук соперника по отрезкам, затем — вес всех отрезков до данного
+        SubsetSums[] sums = new SubsetSums[tileCount];
+        pool.invoke(new TileTask(0, tileCount, tile -> {
+            SubsetSums tileSums = new SubsetSums();
+            int[] cards = new int[5];
+            int from = order.groupStarts[tileGroups[tile]];
+            int to = order.groupStarts[tileGroups[tile + 1]];
+            for (int i = from; i < to; i++) {
+                float weight = opponentRange[order.hands[i]];
+                if (weight != 0) {
+                    EquityTable.cards(order.hands[i], cards);
+                    tileSums.add(cards, weight);
+                }
+            }
+            sums[tile] = tileSums;
+        }));
+        SubsetSums all = SubsetSums.exclusivePrefix(sums);
+
+        double[][] totals = new double[tileCount][];
+        pool.invoke(new TileTask(0, tileCount, tile -> totals[tile] =
+                sweep(order, tileGroups[tile], tileGroups[tile + 1], range, opponentRange, sums[tile], all)));
+
+        double win = 0;
+        double tie = 0;
+        double loss = 0;
+        for (double[] total : totals) {
+            win += total[0];
+            tie += total[1];
+            loss += total[2];
+        }
+        Result result = new Result(win, tie, loss);
+        synchronized (cache) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    // Пустой диапазон для заполнения через set
+    static float[] emptyRange() {
+        return new float[EquityTable.HAND_COUNT];
+    }
+
+    static void set(float[] range, long handMask, float weight) {
+        range[EquityTable.index(handMask)] = weight;
+    }
+
+    // Все руки комбинаций от minCategory до maxCategory (HandEvaluator.HIGH_CARD ... ROYAL_FLUSH) с весом 1
+    static float[] categoryRange(int minCategory, int maxCategory) {
+        float[] range = emptyRange();
+        IntStream.range(0, EquityTable.HAND_COUNT).parallel().forEach(index -> {
+            int[] cards = new int[5];
+            EquityTable.cards(index, cards);
+            int category = HandEvaluator.category(HandEvaluator.score(cards));
+            if (category >= minCategory && category <= maxCategory) {
+                range[index] = 1;
+            }
+        });
+        return range;
+    }
+
+    // Диапазон, где вес руки задан для её класса (HandCanonicalizer)
+    static float[] classRange(float[] classWeights) {
+        float[] range = emptyRange();
+        IntStream.range(0, EquityTable.HAND_COUNT).parallel().forEach(index -> {
+            int[] cards = new int[5];
+            EquityTable.cards(index, cards);
+            range[index] = classWeights[HandCanonicalizer.index(cards[0], cards[1], cards[2], cards[3], cards[4])];
+        });
+        return range;
+    }
+
+    // Проход по группам [fromGroup, toGroup) от начального состояния processed.
+    // Возвращает вес побед, ничьих и поражений первого диапазона.
+    private static double[] sweep(HandOrder order, int fromGroup, int toGroup, float[] range,
+                                  float[] opponentRange, SubsetSums processed, SubsetSums all) {
+        int[] sortedHands = order.hands;
+        int[] groupStarts = order.groupStarts;
+        double win = 0;
+        double tie = 0;
+        double loss = 0;
+        int[] cards = new int[5];
+        double[] below = new double[64];
+        for (int group = fromGroup; group < toGroup; group++) {
+            int groupStart = groupStarts[group];
+            int groupEnd = groupStarts[group + 1];
+            if (below.length < groupEnd - groupStart) {
+                below = new double[groupEnd - groupStart];
+            }
+
+            // Непересекающиеся руки соперника строго слабее
+            for (int g = groupStart; g < groupEnd; g++) {
+                if (range[sortedHands[g]] == 0) continue;
+                EquityTable.cards(sortedHands[g], cards);
+                below[g - groupStart] = processed.disjoint(cards);
+            }
+            for (int g = groupStart; g < groupEnd; g++) {
+                float weight = opponentRange[sortedHands[g]];
+                if (weight == 0) continue;
+                EquityTable.cards(sortedHands[g], cards);
+                processed.add(cards, weight);
+            }
+            // Не сильнее — с учётом ничьих; та же рука у соперника пересекается, её вес вычитается
+            for (int g = groupStart; g < groupEnd; g++) {
+                float weight = range[sortedHands[g]];
+                if (weight == 0) continue;
+                EquityTable.cards(sortedHands[g], cards);
+                double self = opponentRange[sortedHands[g]];
+                double belowOrEqual = processed.disjoint(cards) - self;
+                double total = all.disjoint(cards) - self;
+                win += weight * below[g - groupStart];
+                tie += weight * (belowOrEqual - below[g - groupStart]);
+                loss += weight * (total - belowOrEqual);
+            }
+        }
+        return new double[]{win, tie, loss};
+    }
+
+    // 64-битный хеш весов (FNV-1a по битам значений)
+    private static long hash(float[] range) {
+        long hash = 0xCBF29CE484222325L;
+        for (float weight : range) {
+            hash = (hash ^ Float.floatToIntBits(weight)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer work;
+
+        TileTask(int from, int to, IntConsumer work) {
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) work.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileTask(from, middle, work), new TileTask(middle, to, work));
+        }
+    }
+
+    private static final class Key {
+        final long range;
+        final long opponentRange;
+
+        Key(long range, long opponentRange) {
+            this.range = range;
+            this.opponentRange = opponentRange;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return range == other.range && opponentRange == other.opponentRange;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(range * 31 + opponentRange);
+        }
+    }
+}
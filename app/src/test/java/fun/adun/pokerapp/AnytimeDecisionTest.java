@@ -0,0 +1,101 @@
+package fun.adun.pokerapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Пачки раздач, остановка расчёта по команде и сходимость оценки к точным шансам.
+ */
+public class AnytimeDecisionTest {
+
+    private static final long TIMEOUT_MS = 10000;
+
+    private final AnytimeDecision decision = new AnytimeDecision();
+
+    @After
+    public void tearDown() {
+        decision.shutdown();
+    }
+
+    @Test
+    public void zeroBudgetPlaysOneBatch() throws InterruptedException {
+        decision.start(mask(0, 13, 26, 5, 7), 0);
+        AnytimeDecision.Estimate estimate = awaitEstimate();
+        // Оценка публикуется только целыми пачками; после срока расчёт сам заканчивается
+        Thread.sleep(50);
+        assertSame(estimate, decision.peek());
+        assertEquals(AnytimeDecision.BATCH_SIZE, estimate.iterations);
+    }
+
+    @Test
+    public void commitStopsSearch() throws InterruptedException {
+        decision.start(mask(0, 13, 26, 5, 7), TIMEOUT_MS);
+        awaitEstimate();
+        AnytimeDecision.Estimate committed = decision.commit();
+        assertNotNull(committed);
+        assertEquals(0, committed.iterations % AnytimeDecision.BATCH_SIZE);
+        assertNull(decision.peek());
+
+        // Поток расчёта один: новая оценка появится, только если прежний расчёт остановлен
+        decision.start(mask(1, 2, 3, 4, 6), 0);
+        assertEquals(AnytimeDecision.BATCH_SIZE, awaitEstimate().iterations);
+    }
+
+    @Test
+    public void estimateConvergesToExactEquity() throws InterruptedException {
+        int[] hand = {9, 22, 35, 4, 17};
+        long handMask = mask(hand);
+        int score = HandEvaluator.score(hand);
+
+        // Точные шансы против всех рук соперника из оставшихся 47 карт
+        int[] deck = new int[47];
+        int size = 0;
+        for (int card = 0; card < 52; card++) {
+            if ((handMask & (1L << card)) == 0) deck[size++] = card;
+        }
+        double total = 0;
+        long count = 0;
+        for (int a = 0; a < 47; a++) {
+            for (int b = a + 1; b < 47; b++) {
+                for (int c = b + 1; c < 47; c++) {
+                    for (int d = c + 1; d < 47; d++) {
+                        for (int e = d + 1; e < 47; e++) {
+                            int opponent = HandEvaluator.score(deck[a], deck[b], deck[c], deck[d], deck[e]);
+                            total += score > opponent ? 1 : score == opponent ? 0.5 : 0;
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        double exact = total / count;
+
+        decision.start(handMask, 300);
+        Thread.sleep(400);
+        AnytimeDecision.Estimate estimate = decision.commit();
+        assertNotNull(estimate);
+        assertTrue(estimate.iterations >= AnytimeDecision.BATCH_SIZE);
+        assertTrue(estimate.standardError > 0);
+        assertEquals(exact, estimate.equity, 5 * estimate.standardError);
+    }
+
+    private AnytimeDecision.Estimate awaitEstimate() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        AnytimeDecision.Estimate estimate;
+        while ((estimate = decision.peek()) == null) {
+            assertTrue("Нет оценки", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+        return estimate;
+    }
+
+    private static long mask(int... cards) {
+        long mask = 0;
+        for (int card : cards) {
+            mask |= 1L << card;
+        }
+        return mask;
+    }
+}
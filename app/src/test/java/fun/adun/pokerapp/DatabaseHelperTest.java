@@ -0,0 +1,194 @@
+package fun.adun.pokerapp;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Агрегаты статистики, перенос старых SharedPreferences и обновление схемы базы.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DatabaseHelperTest {
+
+    private Context context;
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.getApplication();
+    }
+
+    @After
+    public void tearDown() {
+        if (databaseHelper != null) databaseHelper.close();
+    }
+
+    @Test
+    public void recordHandUpdatesAggregates() {
+        databaseHelper = new DatabaseHelper(context);
+        long userId = addUser("alice");
+
+        databaseHelper.recordHand(userId, hand(true, true, false, 0));
+        databaseHelper.recordHand(userId, hand(true, false, true, 0.5f));
+        databaseHelper.recordHand(userId, hand(false, false, false, Float.NaN));
+
+        DatabaseHelper.GameStats stats = databaseHelper.getGameStats(userId);
+        assertEquals(3, stats.totalGames);
+        assertEquals(1, stats.playerFolds);
+        assertEquals(2, stats.totalMoves);
+        assertEquals(1, stats.correctMoves);
+        assertEquals(0.5f, stats.evLost, 1e-6f);
+        // Раздача без хода игрока и без оценки ждёт переоценки
+        assertEquals(1, databaseHelper.getUngradedHands(userId).size());
+    }
+
+    @Test
+    public void legacyStatsAreAddedToExistingCounters() {
+        databaseHelper = new DatabaseHelper(context);
+        long userId = addUser("bob");
+        databaseHelper.recordHand(userId, hand(true, false, true, 0));
+        databaseHelper.recordQuizAnswer(userId, true, 5000);
+
+        DatabaseHelper.GameStats game = new DatabaseHelper.GameStats();
+        game.totalGames = 10;
+        game.playerFolds = 4;
+        game.correctMoves = 3;
+        game.totalMoves = 7;
+        game.isComputerTurnFirst = false;
+        DatabaseHelper.QuizStats quiz = new DatabaseHelper.QuizStats();
+        quiz.correctAnswers = 6;
+        quiz.totalQuestionsAttempted = 9;
+        quiz.lastAttemptTime = 1000;
+        databaseHelper.importLegacyStats(userId, game, quiz);
+
+        DatabaseHelper.GameStats stats = databaseHelper.getGameStats(userId);
+        assertEquals(11, stats.totalGames);
+        assertEquals(4, stats.playerFolds);
+        assertEquals(4, stats.correctMoves);
+        assertEquals(8, stats.totalMoves);
+        assertFalse(stats.isComputerTurnFirst);
+
+        DatabaseHelper.QuizStats quizStats = databaseHelper.getQuizStats(userId);
+        assertEquals(7, quizStats.correctAnswers);
+        assertEquals(10, quizStats.totalQuestionsAttempted);
+        assertEquals(5000, quizStats.lastAttemptTime);
+
+        List<DatabaseHelper.LeaderboardEntry> top =
+                databaseHelper.getLeaderboard(DatabaseHelper.ORDER_ACCURACY, 10);
+        assertEquals(1, top.size());
+        assertEquals(50f, top.get(0).accuracy, 1e-4f);
+    }
+
+    @Test
+    public void quizLeaderboardIsOrderedByCorrectAnswers() {
+        databaseHelper = new DatabaseHelper(context);
+        long first = addUser("first");
+        long second = addUser("second");
+        databaseHelper.recordQuizAnswer(first, true, 1);
+        databaseHelper.recordQuizAnswer(second, true, 2);
+        databaseHelper.recordQuizAnswer(second, true, 3);
+        databaseHelper.recordQuizAnswer(second, false, 4);
+
+        List<DatabaseHelper.LeaderboardEntry> top =
+                databaseHelper.getLeaderboard(DatabaseHelper.ORDER_QUIZ, 10);
+        assertEquals("second", top.get(0).username);
+        assertEquals(2, top.get(0).correctAnswers);
+        assertEquals("first", top.get(1).username);
+        assertEquals(1, top.get(1).correctAnswers);
+    }
+
+    @Test
+    public void dueReviewPagesFollowDueTimeThenId() {
+        databaseHelper = new DatabaseHelper(context);
+        long userId = addUser("carol");
+        // Много одинаковых сроков: страницы не должны терять и повторять вопросы на границе
+        for (int id = 0; id < 40; id++) {
+            DatabaseHelper.ReviewState review = new DatabaseHelper.ReviewState();
+            review.questionId = id;
+            review.dueAt = (id * 7) % 5;
+            review.ease = 2.5f;
+            databaseHelper.saveReview(userId, review);
+        }
+        DatabaseHelper.ReviewState future = new DatabaseHelper.ReviewState();
+        future.questionId = 100;
+        future.dueAt = 1000;
+        databaseHelper.saveReview(userId, future);
+
+        long afterDue = -1;
+        int afterId = -1;
+        int count = 0;
+        List<DatabaseHelper.ReviewState> page;
+        while (!(page = databaseHelper.getDueReviews(userId, 999, afterDue, afterId, 6)).isEmpty()) {
+            for (DatabaseHelper.ReviewState review : page) {
+                assertTrue(review.dueAt > afterDue || (review.dueAt == afterDue && review.questionId > afterId));
+                afterDue = review.dueAt;
+                afterId = review.questionId;
+                count++;
+            }
+        }
+        assertEquals(40, count);
+    }
+
+    @Test
+    public void upgradeFromVersion1KeepsUsersAndCreatesStats() {
+        File path = context.getDatabasePath("UserDB");
+        assertTrue(path.getParentFile().isDirectory() || path.getParentFile().mkdirs());
+        SQLiteDatabase old = SQLiteDatabase.openOrCreateDatabase(path, null);
+        // Схема версии 1: только пользователи
+        old.execSQL("CREATE TABLE users (id INTEGER PRIMARY KEY AUTOINCREMENT, username TEXT, password TEXT)");
+        old.execSQL("INSERT INTO users (username, password) VALUES ('old', 'old')");
+        old.setVersion(1);
+        old.close();
+
+        databaseHelper = new DatabaseHelper(context);
+        long userId = databaseHelper.getUserId("old", "old");
+        assertEquals(1, userId);
+        assertEquals(0, databaseHelper.getGameStats(userId).totalGames);
+
+        DatabaseHelper.HandRecord hand = hand(true, false, false, Float.NaN);
+        hand.computerPlayed = true;
+        hand.computerPolicy = ComputerPolicy.PROPORTIONAL;
+        databaseHelper.recordHand(userId, hand);
+        List<DatabaseHelper.HandRecord> ungraded = databaseHelper.getUngradedHands(userId);
+        assertEquals(1, ungraded.size());
+        assertEquals(0x1F, ungraded.get(0).playerCards);
+        assertTrue(ungraded.get(0).computerPlayed);
+        assertEquals(ComputerPolicy.PROPORTIONAL, ungraded.get(0).computerPolicy);
+
+        databaseHelper.recordQuizAnswer(userId, true, 10);
+        assertEquals(1, databaseHelper.getLeaderboard(DatabaseHelper.ORDER_QUIZ, 1).get(0).correctAnswers);
+        Cursor cursor = databaseHelper.getReadableDatabase().rawQuery(
+                "SELECT name FROM pragma_index_info('idx_stats_quiz')", null);
+        assertTrue(cursor.moveToFirst());
+        assertEquals("correct_answers", cursor.getString(0));
+        cursor.close();
+    }
+
+    private long addUser(String name) {
+        assertTrue(databaseHelper.addUser(name, name));
+        return databaseHelper.getUserId(name, name);
+    }
+
+    private static DatabaseHelper.HandRecord hand(boolean playerMoved, boolean folded, boolean correct,
+                                                  float evLoss) {
+        DatabaseHelper.HandRecord hand = new DatabaseHelper.HandRecord();
+        hand.playerCards = 0x1F;
+        hand.playerMoved = playerMoved;
+        hand.playerFolded = folded;
+        hand.correct = correct;
+        hand.evLoss = evLoss;
+        return hand;
+    }
+}
@@ -0,0 +1,138 @@
+package fun.adun.pokerapp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Модель EV оценки решений (ответ = 2 * equity - 1, сброс = 0) и выбор таблицы
+ * по правилу компьютера, которое действовало в раздаче.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DecisionGraderTest {
+
+    private static final float UNIFORM_EQUITY = 0.75f;
+    private static final float CATEGORY_RANGE_EQUITY = 0.25f;
+    private static final float PROPORTIONAL_RANGE_EQUITY = 0.4f;
+    private static final float THRESHOLD_RANGE_EQUITY = 0.3f;
+
+    private DecisionGrader grader;
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() {
+        EquityTable[] ranges = new EquityTable[ComputerPolicy.COUNT];
+        ranges[ComputerPolicy.CATEGORY] = constantTable(CATEGORY_RANGE_EQUITY);
+        ranges[ComputerPolicy.PROPORTIONAL] = constantTable(PROPORTIONAL_RANGE_EQUITY);
+        ranges[ComputerPolicy.THRESHOLD] = constantTable(THRESHOLD_RANGE_EQUITY);
+        grader = new DecisionGrader(constantTable(UNIFORM_EQUITY), ranges);
+    }
+
+    @After
+    public void tearDown() {
+        if (databaseHelper != null) databaseHelper.close();
+    }
+
+    @Test
+    public void handWithoutPlayerMoveIsNotGraded() {
+        DatabaseHelper.HandRecord hand = hand(false, false, false, ComputerPolicy.PROPORTIONAL);
+        grader.grade(hand);
+        assertEquals(0, hand.evLoss, 0);
+        assertFalse(hand.correct);
+    }
+
+    @Test
+    public void againstRandomHandCallIsWorthTwiceEquityMinusOne() {
+        DatabaseHelper.HandRecord call = hand(true, false, false, ComputerPolicy.CATEGORY);
+        grader.grade(call);
+        assertEquals(0, call.evLoss, 1e-4f);
+        assertTrue(call.correct);
+
+        // Сброс отказывается от 2 * 0.75 - 1 = 0.5 ставки
+        DatabaseHelper.HandRecord fold = hand(true, true, false, ComputerPolicy.CATEGORY);
+        grader.grade(fold);
+        assertEquals(0.5f, fold.evLoss, 1e-4f);
+        assertFalse(fold.correct);
+    }
+
+    @Test
+    public void rangeOfPolicyInEffectIsUsed() {
+        // По комбинациям компьютер играет сильнее: ответ теряет 1 - 2 * 0.25 = 0.5
+        DatabaseHelper.HandRecord category = hand(true, false, true, ComputerPolicy.CATEGORY);
+        grader.grade(category);
+        assertEquals(0.5f, category.evLoss, 1e-4f);
+        assertFalse(category.correct);
+
+        DatabaseHelper.HandRecord proportional = hand(true, false, true, ComputerPolicy.PROPORTIONAL);
+        grader.grade(proportional);
+        assertEquals(0.2f, proportional.evLoss, 1e-4f);
+
+        // Сброс против любого из диапазонов ничего не теряет
+        DatabaseHelper.HandRecord fold = hand(true, true, true, ComputerPolicy.PROPORTIONAL);
+        grader.grade(fold);
+        assertEquals(0, fold.evLoss, 0);
+        assertTrue(fold.correct);
+    }
+
+    @Test
+    public void thresholdRangeIsUsedForUpperLevels() {
+        // Уровни 3 и 4: компьютер играет только с шансами от 0.5, ответ теряет 1 - 2 * 0.3 = 0.4
+        DatabaseHelper.HandRecord call = hand(true, false, true, ComputerPolicy.THRESHOLD);
+        grader.grade(call);
+        assertEquals(0.4f, call.evLoss, 1e-4f);
+        assertFalse(call.correct);
+        assertEquals(THRESHOLD_RANGE_EQUITY,
+                grader.equityVsPlayingRange(ComputerPolicy.THRESHOLD, call.playerCards), 1e-4f);
+
+        DatabaseHelper.HandRecord fold = hand(true, true, true, ComputerPolicy.THRESHOLD);
+        grader.grade(fold);
+        assertEquals(0, fold.evLoss, 0);
+        assertTrue(fold.correct);
+    }
+
+    @Test
+    public void regradeUsesStoredPolicyAndCorrectsAggregates() {
+        databaseHelper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+        assertTrue(databaseHelper.addUser("grader", "grader"));
+        long userId = databaseHelper.getUserId("grader", "grader");
+
+        // Без таблиц ходы засчитаны по итогу вскрытия
+        DatabaseHelper.HandRecord category = hand(true, false, true, ComputerPolicy.CATEGORY);
+        category.correct = true;
+        DatabaseHelper.HandRecord proportional = hand(true, true, true, ComputerPolicy.PROPORTIONAL);
+        databaseHelper.recordHand(userId, category);
+        databaseHelper.recordHand(userId, proportional);
+        assertEquals(1, databaseHelper.getGameStats(userId).correctMoves);
+
+        grader.regrade(databaseHelper, userId);
+
+        DatabaseHelper.GameStats stats = databaseHelper.getGameStats(userId);
+        assertEquals(1, stats.correctMoves);
+        assertEquals(0.5f, stats.evLost, 1e-4f);
+        assertTrue(databaseHelper.getUngradedHands(userId).isEmpty());
+    }
+
+    private static EquityTable constantTable(float equity) {
+        short[] table = new short[HandCanonicalizer.CLASS_COUNT];
+        Arrays.fill(table, (short) Math.round(equity * EquityTable.SCALE));
+        return new EquityTable(table);
+    }
+
+    private static DatabaseHelper.HandRecord hand(boolean playerMoved, boolean folded, boolean computerPlayed,
+                                                  int policy) {
+        DatabaseHelper.HandRecord hand = new DatabaseHelper.HandRecord();
+        hand.playerCards = 0x1F;
+        hand.playerMoved = playerMoved;
+        hand.playerFolded = folded;
+        hand.computerPlayed = computerPlayed;
+        hand.computerPolicy = policy;
+        return hand;
+    }
+}
@@ -0,0 +1,128 @@
+package fun.adun.pokerapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Точный расчёт OddsCalculator против полного перебора и добор выборки без известных карт.
+ */
+public class OddsCalculatorTest {
+
+    private final OddsCalculator calculator = new OddsCalculator();
+    private final BlockingQueue<OddsCalculator.Result> results = new ArrayBlockingQueue<>(1024);
+
+    @After
+    public void tearDown() {
+        calculator.shutdown();
+    }
+
+    @Test
+    public void exactResultMatchesBruteForce() throws InterruptedException {
+        int[] player = {0, 14, 28, 3};
+        int[] opponent = {12, 25, 5, 44};
+        long playerMask = mask(player);
+        long opponentMask = mask(opponent);
+
+        long wins = 0;
+        long ties = 0;
+        long total = 0;
+        for (int p = 0; p < 52; p++) {
+            if (((playerMask | opponentMask) & (1L << p)) != 0) continue;
+            for (int o = 0; o < 52; o++) {
+                if (o == p || ((playerMask | opponentMask) & (1L << o)) != 0) continue;
+                int result = Integer.compare(
+                        HandEvaluator.score(player[0], player[1], player[2], player[3], p),
+                        HandEvaluator.score(opponent[0], opponent[1], opponent[2], opponent[3], o));
+                if (result > 0) wins++;
+                else if (result == 0) ties++;
+                total++;
+            }
+        }
+
+        calculator.compute(playerMask, opponentMask, results::add);
+        OddsCalculator.Result result = awaitExact();
+        assertEquals((double) wins / total, result.win, 1e-12);
+        assertEquals((double) ties / total, result.tie, 1e-12);
+        assertEquals(1, result.progress, 0);
+    }
+
+    @Test
+    public void firstEstimateIsRefinedWhenEnumerable() throws InterruptedException {
+        calculator.compute(mask(new int[]{0, 13, 26, 39}), 0, results::add);
+        OddsCalculator.Result first = results.poll(30, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertFalse(first.exact);
+        assertTrue(first.refining);
+        assertTrue(awaitExact().exact);
+    }
+
+    @Test
+    public void noKnownCardsRefinesSampleInsteadOfExactPass() throws InterruptedException {
+        calculator.compute(0, 0, results::add);
+        OddsCalculator.Result first = results.poll(30, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertFalse(first.exact);
+        assertTrue(first.refining);
+        assertFalse(first.enumerating);
+
+        OddsCalculator.Result result = first;
+        while (result.refining) {
+            OddsCalculator.Result next = results.poll(60, TimeUnit.SECONDS);
+            assertNotNull(next);
+            assertFalse(next.exact);
+            assertTrue(next.progress > result.progress);
+            result = next;
+        }
+        assertEquals(1, result.progress, 0);
+        // Симметричная позиция: полная выборка даёт половину с точностью до нескольких ошибок
+        assertEquals(0.5, result.win + result.tie / 2, 0.002);
+        assertNull(results.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void sampleIsKeptAfterCancel() throws InterruptedException {
+        calculator.compute(0, 0, results::add);
+        OddsCalculator.Result first = results.poll(30, TimeUnit.SECONDS);
+        assertNotNull(first);
+        OddsCalculator.Result seen = awaitProgressAbove(first.progress, 0);
+        // Поток расчёта один: оценка для новых карт означает, что прежний расчёт остановлен
+        calculator.compute(1, 0, results::add);
+        awaitProgressAbove(-1, 1);
+        results.clear();
+
+        // Возврат к тем же картам продолжает выборку, а не начинает её заново
+        calculator.compute(0, 0, results::add);
+        OddsCalculator.Result resumed = results.poll(30, TimeUnit.SECONDS);
+        assertNotNull(resumed);
+        assertEquals(0, resumed.playerMask);
+        assertTrue(resumed.progress >= seen.progress);
+    }
+
+    private OddsCalculator.Result awaitProgressAbove(double progress, long playerMask) throws InterruptedException {
+        while (true) {
+            OddsCalculator.Result result = results.poll(60, TimeUnit.SECONDS);
+            assertNotNull(result);
+            if (result.playerMask == playerMask && result.progress > progress) return result;
+        }
+    }
+
+    private OddsCalculator.Result awaitExact() throws InterruptedException {
+        while (true) {
+            OddsCalculator.Result result = results.poll(60, TimeUnit.SECONDS);
+            assertNotNull(result);
+            if (result.exact) return result;
+        }
+    }
+
+    private static long mask(int[] cards) {
+        long mask = 0;
+        for (int card : cards) mask |= 1L << card;
+        return mask;
+    }
+}
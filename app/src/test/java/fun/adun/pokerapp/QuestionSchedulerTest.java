@@ -0,0 +1,169 @@
+package fun.adun.pokerapp;
+
+import android.os.Looper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Порядок вопросов интервального повторения, досев новых вопросов и постраничная загрузка.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class QuestionSchedulerTest {
+
+    private final TestClock clock = new TestClock();
+    private DatabaseHelper databaseHelper;
+    private long userId;
+    private QuestionScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        databaseHelper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+        databaseHelper.addUser("quiz", "quiz");
+        userId = databaseHelper.getUserId("quiz", "quiz");
+        clock.millis = TimeUnit.DAYS.toMillis(100);
+    }
+
+    @After
+    public void tearDown() {
+        if (scheduler != null) scheduler.shutdown();
+        databaseHelper.close();
+    }
+
+    @Test
+    public void answersScheduleNextReview() throws InterruptedException {
+        scheduler = new QuestionScheduler(databaseHelper, userId, new int[]{3, 1, 2}, clock);
+        assertEquals(1, nextQuestion());
+        assertEquals(2, nextQuestion());
+        assertEquals(3, nextQuestion());
+
+        scheduler.recordAnswer(1, true, clock.millis);
+        scheduler.recordAnswer(2, false, clock.millis);
+        scheduler.recordAnswer(3, true, clock.millis);
+        assertEquals(-1, nextQuestion());
+
+        // Ошибка возвращается через десять минут в той же сессии
+        clock.millis += TimeUnit.MINUTES.toMillis(10);
+        assertEquals(2, nextQuestion());
+        // Выданный, но не отвеченный вопрос не повторяется до ответа
+        assertEquals(-1, nextQuestion());
+        scheduler.recordAnswer(2, true, clock.millis);
+        // Поток планировщика один: ответ на запрос означает, что ответ выше уже записан в базу
+        assertEquals(-1, nextQuestion());
+
+        // Верные ответы — через день, уже из базы в новой сессии, по сроку повторения
+        scheduler.shutdown();
+        clock.millis += TimeUnit.DAYS.toMillis(1);
+        scheduler = new QuestionScheduler(databaseHelper, userId, new int[]{1, 2, 3}, clock);
+        assertEquals(1, nextQuestion());
+        assertEquals(3, nextQuestion());
+        assertEquals(2, nextQuestion());
+        assertEquals(-1, nextQuestion());
+        assertEquals(3, databaseHelper.getQuizStats(userId).correctAnswers);
+    }
+
+    @Test
+    public void newQuestionIsSeededWhenCountIsUnchanged() throws InterruptedException {
+        scheduler = new QuestionScheduler(databaseHelper, userId, new int[]{1, 2}, clock);
+        assertEquals(1, nextQuestion());
+        assertEquals(2, nextQuestion());
+        scheduler.recordAnswer(1, true, clock.millis);
+        scheduler.recordAnswer(2, true, clock.millis);
+        assertEquals(-1, nextQuestion());
+        scheduler.shutdown();
+
+        // Вопрос 1 убран, вопрос 3 добавлен: вопросов столько же, но 3 в базе ещё нет
+        scheduler = new QuestionScheduler(databaseHelper, userId, new int[]{2, 3}, clock);
+        assertEquals(3, nextQuestion());
+        assertEquals(-1, nextQuestion());
+
+        // Досев не сбрасывает уже известные вопросы
+        List<DatabaseHelper.ReviewState> all = databaseHelper.getDueReviews(userId, Long.MAX_VALUE, -1, -1, 10);
+        for (DatabaseHelper.ReviewState review : all) {
+            if (review.questionId == 2) assertEquals(1, review.repetitions);
+        }
+    }
+
+    @Test
+    public void pagesCoverAllDueQuestions() throws InterruptedException {
+        int[] ids = new int[175];
+        for (int i = 0; i < ids.length; i++) ids[i] = i;
+        scheduler = new QuestionScheduler(databaseHelper, userId, ids, clock);
+
+        Set<Integer> shown = new HashSet<>();
+        for (int i = 0; i < ids.length; i++) {
+            int questionId = nextQuestion();
+            assertTrue(questionId >= 0);
+            assertTrue(shown.add(questionId));
+        }
+        assertEquals(-1, nextQuestion());
+    }
+
+    @Test
+    public void intervalDoesNotOverflow() throws InterruptedException {
+        scheduler = new QuestionScheduler(databaseHelper, userId, new int[]{7}, clock);
+        for (int i = 0; i < 80; i++) {
+            assertEquals(7, nextQuestion());
+            scheduler.recordAnswer(7, true, clock.millis);
+            assertEquals(-1, nextQuestion());
+            DatabaseHelper.ReviewState review =
+                    databaseHelper.getDueReviews(userId, Long.MAX_VALUE, -1, -1, 1).get(0);
+            assertTrue(review.dueAt > clock.millis);
+            assertTrue(review.intervalMs <= TimeUnit.DAYS.toMillis(3650));
+            clock.millis = review.dueAt;
+        }
+    }
+
+    // Следующий вопрос: ждём фоновый поток и прокручиваем главный цикл до ответа
+    private int nextQuestion() throws InterruptedException {
+        int[] result = {Integer.MIN_VALUE};
+        scheduler.next(questionId -> result[0] = questionId);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (result[0] == Integer.MIN_VALUE) {
+            assertTrue("Нет ответа планировщика", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        return result[0];
+    }
+
+    private static final class TestClock extends Clock {
+        volatile long millis;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
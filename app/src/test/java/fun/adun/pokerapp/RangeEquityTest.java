@@ -0,0 +1,132 @@
+package fun.adun.pokerapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Шансы диапазона против диапазона сравниваются с перебором всех пар рук на малых диапазонах.
+ */
+public class RangeEquityTest {
+
+    // Несколько отрезков даже на одном ядре, чтобы проверить сшивку префиксных сумм
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final RangeEquity rangeEquity = new RangeEquity(pool);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void smallRangesMatchBruteForce() {
+        Random random = new Random(7);
+        // Карты пяти младших рангов всех мастей: много пересечений и равных по силе рук
+        int[] deck = new int[20];
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = (i % 4) * 13 + i / 4;
+        }
+        for (int trial = 0; trial < 3; trial++) {
+            long[] hands = randomHands(random, deck, 40);
+            long[] opponentHands = randomHands(random, deck, 40);
+            float[] weights = randomWeights(random, hands.length);
+            float[] opponentWeights = randomWeights(random, opponentHands.length);
+
+            float[] range = RangeEquity.emptyRange();
+            float[] opponentRange = RangeEquity.emptyRange();
+            for (int i = 0; i < hands.length; i++) {
+                RangeEquity.set(range, hands[i], weights[i]);
+            }
+            for (int i = 0; i < opponentHands.length; i++) {
+                RangeEquity.set(opponentRange, opponentHands[i], opponentWeights[i]);
+            }
+
+            double win = 0;
+            double tie = 0;
+            double loss = 0;
+            for (int i = 0; i < hands.length; i++) {
+                int score = score(hands[i]);
+                for (int j = 0; j < opponentHands.length; j++) {
+                    if ((hands[i] & opponentHands[j]) != 0) continue;
+                    double weight = (double) weights[i] * opponentWeights[j];
+                    int opponentScore = score(opponentHands[j]);
+                    if (score > opponentScore) {
+                        win += weight;
+                    } else if (score == opponentScore) {
+                        tie += weight;
+                    } else {
+                        loss += weight;
+                    }
+                }
+            }
+            double total = win + tie + loss;
+
+            RangeEquity.Result result = rangeEquity.compute(range, opponentRange);
+            assertEquals(total, result.weight, 1e-6 * total);
+            assertEquals(win / total, result.win, 1e-9);
+            assertEquals(tie / total, result.tie, 1e-9);
+            assertEquals(loss / total, result.loss, 1e-9);
+            assertEquals(win / total + tie / total / 2, result.equity(), 1e-9);
+        }
+    }
+
+    @Test
+    public void rangeAgainstItselfIsEven() {
+        float[] range = RangeEquity.emptyRange();
+        Random random = new Random(11);
+        int[] deck = new int[52];
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = i;
+        }
+        for (long hand : randomHands(random, deck, 60)) {
+            RangeEquity.set(range, hand, 1);
+        }
+        RangeEquity.Result result = rangeEquity.compute(range, range);
+        assertEquals(result.win, result.loss, 1e-9);
+        assertEquals(0.5, result.equity(), 1e-9);
+        // Повторный расчёт берётся из кеша
+        assertSame(result, rangeEquity.compute(range, range.clone()));
+    }
+
+    // Различные руки из пяти карт колоды deck
+    private static long[] randomHands(Random random, int[] deck, int count) {
+        long[] hands = new long[count];
+        for (int i = 0; i < count; i++) {
+            long hand;
+            boolean repeated;
+            do {
+                hand = 0;
+                while (Long.bitCount(hand) < 5) {
+                    hand |= 1L << deck[random.nextInt(deck.length)];
+                }
+                repeated = false;
+                for (int j = 0; j < i; j++) {
+                    repeated |= hands[j] == hand;
+                }
+            } while (repeated);
+            hands[i] = hand;
+        }
+        return hands;
+    }
+
+    private static float[] randomWeights(Random random, int count) {
+        float[] weights = new float[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = 0.1f + random.nextFloat();
+        }
+        return weights;
+    }
+
+    private static int score(long hand) {
+        int[] cards = new int[5];
+        for (int i = 0; i < 5; i++) {
+            cards[i] = Long.numberOfTrailingZeros(hand);
+            hand &= hand - 1;
+        }
+        return HandEvaluator.score(cards);
+    }
+}
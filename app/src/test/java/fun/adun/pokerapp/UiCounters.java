@@ -0,0 +1,162 @@
+package fun.adun.pokerapp;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.database.sqlite.SQLiteDatabase;
+import android.graphics.drawable.Drawable;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Счётчики работы главного потока по раундам: выделенная память, время процессора,
+ * новые view, поиски картинок карт и обращения к базе на запись.
+ */
+final class UiCounters {
+
+    long allocatedBytes;
+    long cpuNanos;
+    int createdViews;
+    int drawableLookups;
+    int databaseWrites;
+    int rounds;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private boolean measuring;
+    private long roundBytes;
+    private long roundCpuNanos;
+    private Set<View> viewsBefore;
+
+    UiCounters() {
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    void reset() {
+        allocatedBytes = 0;
+        cpuNanos = 0;
+        createdViews = 0;
+        drawableLookups = 0;
+        databaseWrites = 0;
+        rounds = 0;
+    }
+
+    // Снимок иерархии делается до начала замера, чтобы не учитывать память самого теста
+    void beginRound(View root) {
+        viewsBefore = views(root);
+        measuring = true;
+        roundBytes = allocatedBytes();
+        roundCpuNanos = threads.getCurrentThreadCpuTime();
+    }
+
+    void endRound(View root) {
+        cpuNanos += threads.getCurrentThreadCpuTime() - roundCpuNanos;
+        allocatedBytes += allocatedBytes() - roundBytes;
+        measuring = false;
+        for (View view : views(root)) {
+            if (!viewsBefore.contains(view)) createdViews++;
+        }
+        viewsBefore = null;
+        rounds++;
+    }
+
+    void assertWithin(String screen, long bytesPerRound, long cpuNanosPerRound,
+                      double viewsPerRound, double lookupsPerRound, double writesPerRound) {
+        assertTrue(screen + ": выделено памяти", perRound(allocatedBytes) <= bytesPerRound);
+        assertTrue(screen + ": время главного потока", perRound(cpuNanos) <= cpuNanosPerRound);
+        assertTrue(screen + ": создано view", perRound(createdViews) <= viewsPerRound);
+        assertTrue(screen + ": поиски картинок карт", perRound(drawableLookups) <= lookupsPerRound);
+        assertTrue(screen + ": запись в базу в главном потоке", perRound(databaseWrites) <= writesPerRound);
+    }
+
+    Resources wrap(Resources base) {
+        return new CountingResources(base);
+    }
+
+    DatabaseHelper databaseHelper(Context context) {
+        return new CountingDatabaseHelper(context);
+    }
+
+    private double perRound(long value) {
+        return rounds == 0 ? 0 : (double) value / rounds;
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private void drawableLookup() {
+        if (measuring && Looper.myLooper() == Looper.getMainLooper()) {
+            drawableLookups++;
+        }
+    }
+
+    private static Set<View> views(View root) {
+        Set<View> views = Collections.newSetFromMap(new IdentityHashMap<View, Boolean>());
+        collect(root, views);
+        return views;
+    }
+
+    private static void collect(View view, Set<View> views) {
+        views.add(view);
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                collect(group.getChildAt(i), views);
+            }
+        }
+    }
+
+    // Считает поиск ресурсов картинок по имени и загрузку картинок карт
+    private final class CountingResources extends Resources {
+
+        @SuppressWarnings("deprecation")
+        CountingResources(Resources base) {
+            super(base.getAssets(), base.getDisplayMetrics(), base.getConfiguration());
+        }
+
+        @Override
+        public int getIdentifier(String name, String defType, String defPackage) {
+            if ("drawable".equals(defType)) drawableLookup();
+            return super.getIdentifier(name, defType, defPackage);
+        }
+
+        @Override
+        public Drawable getDrawable(int id, Theme theme) throws NotFoundException {
+            if (isCard(id)) drawableLookup();
+            return super.getDrawable(id, theme);
+        }
+
+        private boolean isCard(int id) {
+            try {
+                String name = getResourceEntryName(id);
+                return name.equals("card_back") || name.matches("[hdcs]([2-9]|10|a|j|q|k)");
+            } catch (NotFoundException e) {
+                return false;
+            }
+        }
+    }
+
+    // Считает открытия базы на запись в главном потоке: запись должна идти в фоне
+    private final class CountingDatabaseHelper extends DatabaseHelper {
+
+        CountingDatabaseHelper(Context context) {
+            super(context);
+        }
+
+        @Override
+        public SQLiteDatabase getWritableDatabase() {
+            if (measuring && Looper.myLooper() == Looper.getMainLooper()) {
+                databaseWrites++;
+            }
+            return super.getWritableDatabase();
+        }
+    }
+}
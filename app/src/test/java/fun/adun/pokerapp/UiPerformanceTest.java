@@ -0,0 +1,243 @@
+package fun.adun.pokerapp;
+
+import android.content.Intent;
+import android.content.res.AssetManager;
+import android.content.res.Resources;
+import android.os.Looper;
+import android.view.View;
+import android.widget.Button;
+import android.widget.RadioGroup;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Сотни раундов игры и викторины на приостановленном главном цикле без эмулятора.
+ * Тест падает, если работа главного потока на раунд превышает бюджеты ниже.
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class UiPerformanceTest {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 300;
+
+    // Паузы GameActivity: «компьютер думает» и показ результата
+    private static final long THINK_DELAY_MS = 1500;
+    private static final long ROUND_DELAY_MS = 5000;
+    // Пауза QuizActivity перед следующим вопросом
+    private static final long QUESTION_DELAY_MS = 2000;
+
+    // Бюджеты на раунд. Уменьшаются вместе с оптимизациями, увеличиваются только осознанно.
+    // Измерено под Robolectric (SDK 34, 300 раундов, три прогона): игра — 53–54 КБ и 4,8–5,4 мс,
+    // викторина — 81–83 КБ и 4,2–4,6 мс. Запас по памяти около четверти, по времени процессора
+    // около двух раз: оно сильнее зависит от машины.
+    private static final long GAME_BYTES_PER_ROUND = 68L << 10;
+    private static final long GAME_CPU_NANOS_PER_ROUND = TimeUnit.MILLISECONDS.toNanos(10);
+    // Карты раунда готовятся в фоне, view карт переиспользуются
+    private static final double GAME_VIEWS_PER_ROUND = 0;
+    private static final double GAME_DRAWABLE_LOOKUPS_PER_ROUND = 0;
+    private static final long QUIZ_BYTES_PER_ROUND = 104L << 10;
+    private static final long QUIZ_CPU_NANOS_PER_ROUND = TimeUnit.MILLISECONDS.toNanos(9);
+    private static final double QUIZ_VIEWS_PER_ROUND = 0;
+    private static final double QUIZ_DRAWABLE_LOOKUPS_PER_ROUND = 0;
+    // Раздачи и ответы пишутся в базу только в фоновых потоках
+    private static final double MAIN_THREAD_DATABASE_WRITES_PER_ROUND = 0;
+    // Перерыв между ответами викторины — час; часы теста сдвигаются дальше любого
+    // интервала повторения (не больше десяти лет), чтобы каждый вопрос снова был готов
+    private static final long QUIZ_CLOCK_STEP_MS = TimeUnit.DAYS.toMillis(4000);
+
+    // Маленькие таблицы с одинаковыми шансами вместо чтения таблиц из assets
+    private static final DecisionGrader GRADER = constantGrader();
+
+    private long userId;
+
+    @Before
+    public void setUp() {
+        DatabaseHelper databaseHelper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+        databaseHelper.addUser("perf", "perf");
+        userId = databaseHelper.getUserId("perf", "perf");
+        databaseHelper.close();
+    }
+
+    @Test
+    public void gameRoundsStayWithinBudget() throws Exception {
+        Intent intent = new Intent(RuntimeEnvironment.getApplication(), CountingGameActivity.class)
+                .putExtra(MainActivity.EXTRA_USER_ID, userId)
+                .putExtra(GameActivity.EXTRA_THINK_BUDGET_MS, 1L);
+        ActivityController<CountingGameActivity> controller =
+                Robolectric.buildActivity(CountingGameActivity.class, intent).setup();
+        CountingGameActivity activity = controller.get();
+        UiCounters counters = activity.counters;
+        ShadowLooper looper = shadowOf(Looper.getMainLooper());
+        View root = activity.getWindow().getDecorView();
+        Button callButton = activity.findViewById(R.id.callButton);
+        Button foldButton = activity.findViewById(R.id.foldButton);
+
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            if (round == WARMUP_ROUNDS) counters.reset();
+            counters.beginRound(root);
+            // Решение компьютера, если он ходит первым
+            looper.idleFor(Duration.ofMillis(THINK_DELAY_MS));
+            if (callButton.isEnabled()) {
+                (round % 3 == 0 ? foldButton : callButton).performClick();
+            }
+            activity.awaitNextRound();
+            looper.idleFor(Duration.ofMillis(ROUND_DELAY_MS));
+            counters.endRound(root);
+        }
+        controller.pause().stop().destroy();
+
+        counters.assertWithin("Игра", GAME_BYTES_PER_ROUND, GAME_CPU_NANOS_PER_ROUND,
+                GAME_VIEWS_PER_ROUND, GAME_DRAWABLE_LOOKUPS_PER_ROUND, MAIN_THREAD_DATABASE_WRITES_PER_ROUND);
+    }
+
+    @Test
+    public void quizRoundsStayWithinBudget() throws Exception {
+        Intent intent = new Intent(RuntimeEnvironment.getApplication(), CountingQuizActivity.class)
+                .putExtra(MainActivity.EXTRA_USER_ID, userId);
+        ActivityController<CountingQuizActivity> controller =
+                Robolectric.buildActivity(CountingQuizActivity.class, intent).setup();
+        CountingQuizActivity activity = controller.get();
+        UiCounters counters = activity.counters;
+        TestClock clock = activity.clock;
+        ShadowLooper looper = shadowOf(Looper.getMainLooper());
+        View root = activity.getWindow().getDecorView();
+        RadioGroup answersGroup = activity.findViewById(R.id.answersGroup);
+        Button submitButton = activity.findViewById(R.id.submitButton);
+        awaitQuestion(activity, looper);
+
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            if (round == WARMUP_ROUNDS) counters.reset();
+            counters.beginRound(root);
+            // Иначе нажатие на выключенную кнопку не дойдёт до проверки ответа
+            assertTrue("Кнопка ответа выключена в раунде " + round, submitButton.isEnabled());
+            answersGroup.check(R.id.answer1);
+            submitButton.performClick();
+            clock.millis += QUIZ_CLOCK_STEP_MS;
+            looper.idleFor(Duration.ofMillis(QUESTION_DELAY_MS));
+            awaitQuestion(activity, looper);
+            counters.endRound(root);
+        }
+        controller.pause().stop().destroy();
+
+        counters.assertWithin("Викторина", QUIZ_BYTES_PER_ROUND, QUIZ_CPU_NANOS_PER_ROUND,
+                QUIZ_VIEWS_PER_ROUND, QUIZ_DRAWABLE_LOOKUPS_PER_ROUND, MAIN_THREAD_DATABASE_WRITES_PER_ROUND);
+    }
+
+    // Вопрос выбирается в фоновом потоке и показывается через главный цикл
+    private static void awaitQuestion(QuizActivity activity, ShadowLooper looper) throws InterruptedException {
+        TextView questionText = activity.findViewById(R.id.questionText);
+        View resultText = activity.findViewById(R.id.resultText);
+        for (int i = 0; i < 5000; i++) {
+            looper.idleFor(Duration.ofMillis(1));
+            if (questionText.length() > 0 && resultText.getVisibility() == View.GONE) return;
+            Thread.sleep(1);
+        }
+        assertEquals("Вопрос не показан: " + questionText.getText(), View.GONE, resultText.getVisibility());
+    }
+
+    private static DecisionGrader constantGrader() {
+        short[] table = new short[HandCanonicalizer.CLASS_COUNT];
+        Arrays.fill(table, (short) (EquityTable.SCALE / 2));
+        EquityTable half = new EquityTable(table);
+        EquityTable[] ranges = new EquityTable[ComputerPolicy.COUNT];
+        Arrays.fill(ranges, half);
+        return new DecisionGrader(half, ranges);
+    }
+
+    // Записи в манифесте не нужны: Robolectric.buildActivity создаёт активити напрямую
+    public static class CountingGameActivity extends GameActivity {
+        final UiCounters counters = new UiCounters();
+        private Resources resources;
+
+        @Override
+        public Resources getResources() {
+            if (getBaseContext() == null) return super.getResources();
+            if (resources == null) {
+                resources = counters.wrap(super.getResources());
+            }
+            return resources;
+        }
+
+        @Override
+        DatabaseHelper createDatabaseHelper() {
+            return counters.databaseHelper(this);
+        }
+
+        @Override
+        DecisionGrader readDecisionGrader(AssetManager assets) {
+            return GRADER;
+        }
+    }
+
+    public static class CountingQuizActivity extends QuizActivity {
+        final UiCounters counters = new UiCounters();
+        final TestClock clock = new TestClock();
+        private Resources resources;
+
+        @Override
+        public Resources getResources() {
+            if (getBaseContext() == null) return super.getResources();
+            if (resources == null) {
+                resources = counters.wrap(super.getResources());
+            }
+            return resources;
+        }
+
+        @Override
+        DatabaseHelper createDatabaseHelper() {
+            return counters.databaseHelper(this);
+        }
+
+        @Override
+        Clock createClock() {
+            return clock;
+        }
+    }
+
+    // Время сдвигает сам тест
+    private static final class TestClock extends Clock {
+        volatile long millis = TimeUnit.DAYS.toMillis(100);
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+plugins {
+    `java-library`
+}
+
+// Покерная логика без зависимостей от Android: оценка рук, канонизация, таблицы шансов
+// и правила компьютера. Общая для приложения и инструментов сборки.
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,76 @@
+package fun.adun.pokerapp;
+
+// Правила, по которым компьютер решает играть. Общие для игры, для оценки решений игрока
+// и для генератора таблиц в tools, который строит шансы против диапазона каждого правила.
+// Номер правила хранится вместе с раздачей, поэтому номера не меняются.
+final class ComputerPolicy {
+
+    // Прежнее правило: вероятность игры по комбинации. Действует, пока таблицы не загружены
+    static final int CATEGORY = 0;
+    // Играет с вероятностью, равной шансам руки
+    static final int PROPORTIONAL = 1;
+    // Играет, только если шансы не ниже THRESHOLD_EQUITY
+    static final int THRESHOLD = 2;
+    static final int COUNT = 3;
+
+    static final float THRESHOLD_EQUITY = 0.5f;
+
+    private ComputerPolicy() {
+    }
+
+    // Таблица шансов против диапазона рук, с которыми компьютер играет по правилу policy.
+    // При изменении вероятностей правила меняется и имя файла.
+    static String rangeFileName(int policy) {
+        switch (policy) {
+            case CATEGORY: return "range_equity_category_v1.bin";
+            case PROPORTIONAL: return "range_equity_v1.bin";
+            case THRESHOLD: return "range_equity_threshold_v1.bin";
+            default: throw new IllegalArgumentException("Неизвестное правило: " + policy);
+        }
+    }
+
+    // Вероятность игры по правилу policy для руки данной комбинации и с данными шансами
+    static float playProbability(int policy, int category, float equity) {
+        switch (policy) {
+            case CATEGORY: return categoryPlayProbability(category);
+            case THRESHOLD: return equity >= THRESHOLD_EQUITY ? 1 : 0;
+            default: return playProbability(equity);
+        }
+    }
+
+    // Вероятность, с которой компьютер играет руку с данными шансами на вскрытии
+    static float playProbability(float equity) {
+        return equity;
+    }
+
+    // Вероятность игры только по комбинации
+    static float categoryPlayProbability(int category) {
+        switch (category) {
+            case HandEvaluator.ROYAL_FLUSH:
+            case HandEvaluator.STRAIGHT_FLUSH:
+            case HandEvaluator.FOUR_OF_A_KIND:
+            case HandEvaluator.FULL_HOUSE:
+            case HandEvaluator.FLUSH:
+            case HandEvaluator.STRAIGHT:
+                return 1;
+            case HandEvaluator.THREE_OF_A_KIND: return 0.9f;
+            case HandEvaluator.TWO_PAIRS: return 0.8f;
+            case HandEvaluator.PAIR: return 0.6f;
+            default: return 0.2f;
+        }
+    }
+
+    // Вес каждого класса рук (HandCanonicalizer) в диапазоне компьютера при правиле policy
+    static float[] rangeWeights(int policy, EquityTable uniform) {
+        float[] weights = new float[HandCanonicalizer.CLASS_COUNT];
+        int[] cards = new int[5];
+        // Руки одного класса отличаются только мастями, у них одна комбинация и одни шансы
+        for (int index = 0; index < EquityTable.HAND_COUNT; index++) {
+            EquityTable.cards(index, cards);
+            int classIndex = HandCanonicalizer.index(cards[0], cards[1], cards[2], cards[3], cards[4]);
+            weights[classIndex] = playProbability(policy,
+                    HandEvaluator.category(HandEvaluator.score(cards)), uniform.classEquity(classIndex));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,97 @@
+package fun.adun.pokerapp;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+// Шансы каждой руки из пяти карт против случайной руки соперника из оставшихся 47 карт.
+// Хранится как short с фиксированной точкой (SCALE = 100%) по одному значению на класс
+// рук с точностью до перестановки мастей (см. HandCanonicalizer), около 260 КБ.
+// Таблицы строятся при сборке генератором из tools и лежат в assets приложения.
+final class EquityTable {
+
+    static final String FILE_NAME = "hand_equity.bin";
+    static final int HAND_COUNT = 2598960; // C(52, 5)
+    static final int SCALE = 32767;
+    static final int MAGIC = 0x45515432;
+
+    private static final int[][] BINOMIAL = new int[53][6];
+
+    static {
+        for (int n = 0; n <= 52; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, 5); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private final short[] table;
+
+    EquityTable(short[] table) {
+        this.table = table;
+    }
+
+    // Таблица в формате генератора: MAGIC, число классов, значения short по порядку классов
+    static EquityTable read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC || in.readInt() != HandCanonicalizer.CLASS_COUNT) {
+            throw new IOException("Неверный формат таблицы шансов");
+        }
+        byte[] bytes = new byte[2 * HandCanonicalizer.CLASS_COUNT];
+        in.readFully(bytes);
+        short[] table = new short[HandCanonicalizer.CLASS_COUNT];
+        ByteBuffer.wrap(bytes).asShortBuffer().get(table);
+        return new EquityTable(table);
+    }
+
+    float equity(int c0, int c1, int c2, int c3, int c4) {
+        return table[HandCanonicalizer.index(c0, c1, c2, c3, c4)] / (float) SCALE;
+    }
+
+    float equity(List<Integer> hand) {
+        return equity(hand.get(0), hand.get(1), hand.get(2), hand.get(3), hand.get(4));
+    }
+
+    float equity(long handMask) {
+        return table[HandCanonicalizer.index(handMask)] / (float) SCALE;
+    }
+
+    float classEquity(int classIndex) {
+        return table[classIndex] / (float) SCALE;
+    }
+
+    // Номер сочетания карт среди всех рук, порядок карт в руке не важен
+    static int index(int c0, int c1, int c2, int c3, int c4) {
+        return index((1L << c0) | (1L << c1) | (1L << c2) | (1L << c3) | (1L << c4));
+    }
+
+    // Номер руки по маске из пяти карт
+    static int index(long mask) {
+        int index = 0;
+        for (int k = 1; k <= 5; k++) {
+            index += BINOMIAL[Long.numberOfTrailingZeros(mask)][k];
+            mask &= mask - 1;
+        }
+        return index;
+    }
+
+    // Карты руки по её номеру, по возрастанию
+    static void cards(int index, int[] out) {
+        int card = 51;
+        for (int k = 5; k >= 1; k--) {
+            while (BINOMIAL[card][k] > index) {
+                card--;
+            }
+            out[k - 1] = card;
+            index -= BINOMIAL[card][k];
+            card--;
+        }
+    }
+
+    static int binomial(int n, int k) {
+        return BINOMIAL[n][k];
+    }
+}
@@ -0,0 +1,141 @@
+package fun.adun.pokerapp;
+
+import java.util.Arrays;
+
+// Приведение руки к каноническому виду с точностью до перестановки мастей.
+// Руки из пяти карт, отличающиеся только мастями, имеют одинаковую силу и шансы,
+// поэтому таблицы можно хранить по 134 459 классам вместо 2 598 960 рук.
+//
+// Рука задаётся маской из 52 бит (бит cardId = масть * 13 + ранг). Канонический вид —
+// маски рангов по мастям, упорядоченные так, что старшая маска стоит в старшей масти.
+// Такое число одновременно служит ключом: классы пронумерованы по возрастанию ключа.
+final class HandCanonicalizer {
+
+    static final int CLASS_COUNT = 134459;
+
+    private static final int SUIT_BITS = 13;
+    private static final long SUIT_MASK = 0x1FFF;
+
+    // Канонические маски всех классов по возрастанию
+    private static final long[] KEYS = new long[CLASS_COUNT];
+    // Начало диапазона KEYS для каждой маски старшей масти
+    private static final int[] START = new int[(1 << SUIT_BITS) + 1];
+
+    static {
+        int[][] masksByCount = new int[6][];
+        for (int count = 0; count <= 5; count++) {
+            int size = 0;
+            for (int mask = 0; mask <= SUIT_MASK; mask++) {
+                if (Integer.bitCount(mask) == count) size++;
+            }
+            masksByCount[count] = new int[size];
+            size = 0;
+            for (int mask = 0; mask <= SUIT_MASK; mask++) {
+                if (Integer.bitCount(mask) == count) masksByCount[count][size++] = mask;
+            }
+        }
+
+        int size = 0;
+        for (int ca = 0; ca <= 5; ca++) {
+            for (int a : masksByCount[ca]) {
+                for (int cb = 0; cb <= 5 - ca; cb++) {
+                    for (int b : masksByCount[cb]) {
+                        if (b > a) continue;
+                        for (int cc = 0; cc <= 5 - ca - cb; cc++) {
+                            for (int c : masksByCount[cc]) {
+                                if (c > b) continue;
+                                for (int d : masksByCount[5 - ca - cb - cc]) {
+                                    if (d > c) continue;
+                                    KEYS[size++] = pack(a, b, c, d);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        Arrays.sort(KEYS);
+
+        int key = 0;
+        for (int top = 0; top <= SUIT_MASK; top++) {
+            START[top] = key;
+            while (key < CLASS_COUNT && (KEYS[key] >>> (3 * SUIT_BITS)) == top) {
+                key++;
+            }
+        }
+        START[1 << SUIT_BITS] = CLASS_COUNT;
+    }
+
+    private HandCanonicalizer() {
+    }
+
+    // Номер класса руки от 0 до CLASS_COUNT - 1
+    static int index(long hand) {
+        long key = canonical(hand);
+        int top = (int) (key >>> (3 * SUIT_BITS));
+        return Arrays.binarySearch(KEYS, START[top], START[top + 1], key);
+    }
+
+    static int index(int c0, int c1, int c2, int c3, int c4) {
+        return index((1L << c0) | (1L << c1) | (1L << c2) | (1L << c3) | (1L << c4));
+    }
+
+    // Обратное отображение: канонический представитель класса
+    static long representative(int index) {
+        return KEYS[index];
+    }
+
+    // Канонический вид руки: маски мастей по убыванию, от пик к червам
+    static long canonical(long hand) {
+        long a = hand & SUIT_MASK;
+        long b = (hand >>> SUIT_BITS) & SUIT_MASK;
+        long c = (hand >>> (2 * SUIT_BITS)) & SUIT_MASK;
+        long d = (hand >>> (3 * SUIT_BITS)) & SUIT_MASK;
+        long t;
+        if (a < b) { t = a; a = b; b = t; }
+        if (c < d) { t = c; c = d; d = t; }
+        if (a < c) { t = a; a = c; c = t; }
+        if (b < d) { t = b; b = d; d = t; }
+        if (b < c) { t = b; b = c; c = t; }
+        return pack(a, b, c, d);
+    }
+
+    // Перестановка мастей, приводящая пару (рука, вышедшие карты) к каноническому виду.
+    // Масти упорядочиваются по маске руки, а при равенстве — по маске вышедших карт.
+    // Номера классов для таких пар нет: канонические пары годятся как ключ кеша, но не как индекс таблицы.
+    // Результат: по 2 бита на масть, новая масть для старой масти s — в битах 2s..2s+1.
+    static int suitPermutation(long hand, long dead) {
+        long a = suitKey(hand, dead, 0);
+        long b = suitKey(hand, dead, 1);
+        long c = suitKey(hand, dead, 2);
+        long d = suitKey(hand, dead, 3);
+        long t;
+        if (a < b) { t = a; a = b; b = t; }
+        if (c < d) { t = c; c = d; d = t; }
+        if (a < c) { t = a; a = c; c = t; }
+        if (b < d) { t = b; b = d; d = t; }
+        if (b < c) { t = b; b = c; c = t; }
+        // Старшая по ключу масть становится пиками (3), младшая — червами (0)
+        return (3 << (2 * (a & 3))) | (2 << (2 * (b & 3))) | (1 << (2 * (c & 3)));
+    }
+
+    // Применение перестановки мастей к маске карт
+    static long permute(long cards, int permutation) {
+        long result = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            int target = (permutation >>> (2 * suit)) & 3;
+            result |= ((cards >>> (suit * SUIT_BITS)) & SUIT_MASK) << (target * SUIT_BITS);
+        }
+        return result;
+    }
+
+    private static long suitKey(long hand, long dead, int suit) {
+        long handSuit = (hand >>> (suit * SUIT_BITS)) & SUIT_MASK;
+        long deadSuit = (dead >>> (suit * SUIT_BITS)) & SUIT_MASK;
+        return (((handSuit << SUIT_BITS) | deadSuit) << 2) | suit;
+    }
+
+    private static long pack(long a, long b, long c, long d) {
+        return (a << (3 * SUIT_BITS)) | (b << (2 * SUIT_BITS)) | (c << SUIT_BITS) | d;
+    }
+}
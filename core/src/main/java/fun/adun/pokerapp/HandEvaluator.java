@@ -0,0 +1,104 @@
+package fun.adun.pokerapp;
+
+import java.util.List;
+
+// Быстрая оценка руки из пяти карт по тем же правилам, что и в GameActivity:
+// cardId = масть * 13 + ранг, туз имеет ранг 0 и при сравнении кикеров считается младшим.
+// Результат — одно число: категория в старших битах, ранги по убыванию в младших 20,
+// поэтому руки можно сравнивать обычным сравнением чисел.
+final class HandEvaluator {
+
+    // Константы комбинаций (совпадают с GameActivity)
+    static final int HIGH_CARD = 1;
+    static final int PAIR = 2;
+    static final int TWO_PAIRS = 3;
+    static final int THREE_OF_A_KIND = 4;
+    static final int STRAIGHT = 5;
+    static final int FLUSH = 6;
+    static final int FULL_HOUSE = 7;
+    static final int FOUR_OF_A_KIND = 8;
+    static final int STRAIGHT_FLUSH = 9;
+    static final int ROYAL_FLUSH = 10;
+
+    private static final int CATEGORY_SHIFT = 20;
+    // Маски рангов особых комбинаций: A-10-J-Q-K и A-2-3-4-K
+    private static final int ROYAL_MASK = 0x1E01;
+    private static final int WHEEL_KING_MASK = 0x100F;
+
+    private HandEvaluator() {
+    }
+
+    static int score(int c0, int c1, int c2, int c3, int c4) {
+        int suit = c0 / 13;
+        boolean flush = c1 / 13 == suit && c2 / 13 == suit && c3 / 13 == suit && c4 / 13 == suit;
+
+        // По 4 бита на счётчик каждого ранга
+        long counts = (1L << ((c0 % 13) << 2)) + (1L << ((c1 % 13) << 2))
+                + (1L << ((c2 % 13) << 2)) + (1L << ((c3 % 13) << 2))
+                + (1L << ((c4 % 13) << 2));
+
+        int kickers = 0;
+        int rankMask = 0;
+        int maxCount = 0;
+        int pairs = 0;
+        for (int rank = 12; rank >= 0; rank--) {
+            int count = (int) (counts >>> (rank << 2)) & 0xF;
+            if (count == 0) continue;
+            rankMask |= 1 << rank;
+            if (count > maxCount) maxCount = count;
+            if (count == 2) pairs++;
+            for (int i = 0; i < count; i++) {
+                kickers = (kickers << 4) | rank;
+            }
+        }
+
+        int category;
+        if (maxCount == 1) {
+            boolean straight = (rankMask >>> Integer.numberOfTrailingZeros(rankMask)) == 0x1F
+                    || rankMask == WHEEL_KING_MASK;
+            if (flush && rankMask == ROYAL_MASK) category = ROYAL_FLUSH;
+            else if (flush && straight) category = STRAIGHT_FLUSH;
+            else if (flush) category = FLUSH;
+            else if (straight) category = STRAIGHT;
+            else category = HIGH_CARD;
+        } else if (maxCount == 4) {
+            category = FOUR_OF_A_KIND;
+        } else if (maxCount == 3) {
+            category = pairs == 1 ? FULL_HOUSE : THREE_OF_A_KIND;
+        } else {
+            category = pairs == 2 ? TWO_PAIRS : PAIR;
+        }
+        return (category << CATEGORY_SHIFT) | kickers;
+    }
+
+    static int score(int[] hand) {
+        return score(hand[0], hand[1], hand[2], hand[3], hand[4]);
+    }
+
+    static int score(List<Integer> hand) {
+        return score(hand.get(0), hand.get(1), hand.get(2), hand.get(3), hand.get(4));
+    }
+
+    static int category(int score) {
+        return score >>> CATEGORY_SHIFT;
+    }
+
+    // Короткое название карты для подписей, например "A♥" или "10♠"
+    static String cardName(int cardId) {
+        String rank;
+        int rankValue = (cardId % 13) + 1;
+        switch (rankValue) {
+            case 1: rank = "A"; break;
+            case 11: rank = "J"; break;
+            case 12: rank = "Q"; break;
+            case 13: rank = "K"; break;
+            default: rank = String.valueOf(rankValue);
+        }
+        switch (cardId / 13) {
+            case 0: return rank + "♥";
+            case 1: return rank + "♦";
+            case 2: return rank + "♣";
+            default: return rank + "♠";
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package fun.adun.pokerapp;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Все руки из пяти карт по возрастанию силы и границы групп равной силы.
+// Общий порядок проходов через SubsetSums: генератора таблиц шансов (tools) и RangeEquity.
+final class HandOrder {
+
+    private static HandOrder instance;
+
+    // Номера рук (EquityTable.index) по возрастанию силы
+    final int[] hands;
+    // Начала групп равной силы в hands; последний элемент — hands.length
+    final int[] groupStarts;
+
+    private HandOrder(int[] hands, int[] groupStarts) {
+        this.hands = hands;
+        this.groupStarts = groupStarts;
+    }
+
+    // Строится один раз на процесс, около секунды
+    static synchronized HandOrder get() {
+        if (instance == null) {
+            long[] order = sortedHands();
+            int[] hands = new int[order.length];
+            int[] starts = new int[order.length + 1];
+            int groups = 0;
+            for (int i = 0; i < order.length; i++) {
+                hands[i] = (int) (order[i] & 0x3FFFFF);
+                if (i == 0 || (order[i] >>> 22) != (order[i - 1] >>> 22)) {
+                    starts[groups++] = i;
+                }
+            }
+            starts[groups] = order.length;
+            instance = new HandOrder(hands, Arrays.copyOf(starts, groups + 1));
+        }
+        return instance;
+    }
+
+    int groupCount() {
+        return groupStarts.length - 1;
+    }
+
+    // Границы отрезков в номерах групп: примерно поровну рук, группа не делится
+    int[] tiles(int count) {
+        int groupCount = groupCount();
+        int[] bounds = new int[count + 1];
+        int tiles = 0;
+        int group = 0;
+        for (int t = 1; t < count; t++) {
+            long target = (long) hands.length * t / count;
+            while (group < groupCount && groupStarts[group] < target) {
+                group++;
+            }
+            if (group > bounds[tiles]) {
+                bounds[++tiles] = group;
+            }
+        }
+        if (groupCount > bounds[tiles]) {
+            bounds[++tiles] = groupCount;
+        }
+        return Arrays.copyOf(bounds, tiles + 1);
+    }
+
+    // Индексы всех рук, упорядоченные по силе: сила в старших битах, индекс в младших 22
+    private static long[] sortedHands() {
+        int[] scores = new int[EquityTable.HAND_COUNT];
+        // Сила всех рук, параллельно по старшей карте
+        IntStream.range(4, 52).parallel().forEach(c4 -> {
+            for (int c3 = 3; c3 < c4; c3++) {
+                for (int c2 = 2; c2 < c3; c2++) {
+                    for (int c1 = 1; c1 < c2; c1++) {
+                        for (int c0 = 0; c0 < c1; c0++) {
+                            scores[EquityTable.index(c0, c1, c2, c3, c4)] =
+                                    HandEvaluator.score(c0, c1, c2, c3, c4);
+                        }
+                    }
+                }
+            }
+        });
+
+        long[] order = new long[EquityTable.HAND_COUNT];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = ((long) scores[i] << 22) | i;
+        }
+        Arrays.parallelSort(order);
+        return order;
+    }
+}
@@ -0,0 +1,93 @@
+package fun.adun.pokerapp;
+
+// Суммы весов рук по всем подмножествам из 1-4 карт.
+// По ним формулой включений-исключений считается вес рук без общих карт с данной.
+final class SubsetSums {
+
+    double total;
+    final double[] singles = new double[52];
+    final double[] pairs = new double[EquityTable.binomial(52, 2)];
+    final double[] triples = new double[EquityTable.binomial(52, 3)];
+    final double[] quads = new double[EquityTable.binomial(52, 4)];
+
+    // Карты руки по возрастанию
+    void add(int[] c, double weight) {
+        total += weight;
+        for (int a = 0; a < 5; a++) {
+            singles[c[a]] += weight;
+            for (int b = a + 1; b < 5; b++) {
+                pairs[pairIndex(c[a], c[b])] += weight;
+                for (int d = b + 1; d < 5; d++) {
+                    triples[tripleIndex(c[a], c[b], c[d])] += weight;
+                    for (int e = d + 1; e < 5; e++) {
+                        quads[quadIndex(c[a], c[b], c[d], c[e])] += weight;
+                    }
+                }
+            }
+        }
+    }
+
+    // Вес рук без общих карт с данной, по формуле включений-исключений.
+    // Слагаемое для всех пяти карт (сама рука) учитывает вызывающий код.
+    double disjoint(int[] c) {
+        double sum = total;
+        for (int a = 0; a < 5; a++) {
+            sum -= singles[c[a]];
+            for (int b = a + 1; b < 5; b++) {
+                sum += pairs[pairIndex(c[a], c[b])];
+                for (int d = b + 1; d < 5; d++) {
+                    sum -= triples[tripleIndex(c[a], c[b], c[d])];
+                    for (int e = d + 1; e < 5; e++) {
+                        sum += quads[quadIndex(c[a], c[b], c[d], c[e])];
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    // Заменяет суммы каждой части суммами всех частей перед ней.
+    // Возвращает сумму всех частей.
+    static SubsetSums exclusivePrefix(SubsetSums[] parts) {
+        SubsetSums all = new SubsetSums();
+        for (SubsetSums part : parts) {
+            double value = part.total;
+            part.total = all.total;
+            all.total += value;
+        }
+        prefix(parts, all.singles, p -> p.singles);
+        prefix(parts, all.pairs, p -> p.pairs);
+        prefix(parts, all.triples, p -> p.triples);
+        prefix(parts, all.quads, p -> p.quads);
+        return all;
+    }
+
+    private interface Field {
+        double[] of(SubsetSums sums);
+    }
+
+    private static void prefix(SubsetSums[] parts, double[] running, Field field) {
+        for (SubsetSums part : parts) {
+            double[] values = field.of(part);
+            for (int i = 0; i < values.length; i++) {
+                double value = values[i];
+                values[i] = running[i];
+                running[i] += value;
+            }
+        }
+    }
+
+    // Индексы сочетаний для возрастающих карт
+    private static int pairIndex(int a, int b) {
+        return EquityTable.binomial(a, 1) + EquityTable.binomial(b, 2);
+    }
+
+    private static int tripleIndex(int a, int b, int c) {
+        return EquityTable.binomial(a, 1) + EquityTable.binomial(b, 2) + EquityTable.binomial(c, 3);
+    }
+
+    private static int quadIndex(int a, int b, int c, int d) {
+        return EquityTable.binomial(a, 1) + EquityTable.binomial(b, 2)
+                + EquityTable.binomial(c, 3) + EquityTable.binomial(d, 4);
+    }
+}
@@ -0,0 +1,89 @@
+package fun.adun.pokerapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Проверка канонизации по мастям: классы покрывают все руки, не зависят от перестановки
+ * мастей и объединяют только руки равной силы.
+ */
+public class HandCanonicalizerTest {
+
+    @Test
+    public void everyHandMapsToOneOfAllClasses() {
+        boolean[] seen = new boolean[HandCanonicalizer.CLASS_COUNT];
+        int[] cards = new int[5];
+        for (int i = 0; i < EquityTable.HAND_COUNT; i++) {
+            EquityTable.cards(i, cards);
+            long hand = mask(cards);
+            int index = HandCanonicalizer.index(hand);
+            assertTrue(index >= 0);
+            assertEquals(HandCanonicalizer.canonical(hand), HandCanonicalizer.representative(index));
+            seen[index] = true;
+        }
+        for (boolean classSeen : seen) {
+            assertTrue(classSeen);
+        }
+    }
+
+    @Test
+    public void suitPermutationDoesNotChangeCanonicalPair() {
+        Random random = new Random(1);
+        List<Integer> deck = new ArrayList<>();
+        for (int i = 0; i < 52; i++) deck.add(i);
+
+        for (int it = 0; it < 10000; it++) {
+            Collections.shuffle(deck, random);
+            long hand = 0;
+            long dead = 0;
+            for (int i = 0; i < 5; i++) hand |= 1L << deck.get(i);
+            for (int i = 5; i < 10; i++) dead |= 1L << deck.get(i);
+
+            // Случайная перестановка мастей: 0 -> s0, 1 -> s1, ...
+            List<Integer> suits = new ArrayList<>(Arrays.asList(0, 1, 2, 3));
+            Collections.shuffle(suits, random);
+            int shuffle = 0;
+            for (int s = 0; s < 4; s++) shuffle |= suits.get(s) << (2 * s);
+            long otherHand = HandCanonicalizer.permute(hand, shuffle);
+            long otherDead = HandCanonicalizer.permute(dead, shuffle);
+
+            int p = HandCanonicalizer.suitPermutation(hand, dead);
+            int q = HandCanonicalizer.suitPermutation(otherHand, otherDead);
+            assertEquals(HandCanonicalizer.permute(hand, p), HandCanonicalizer.permute(otherHand, q));
+            assertEquals(HandCanonicalizer.permute(dead, p), HandCanonicalizer.permute(otherDead, q));
+            assertEquals(HandCanonicalizer.index(hand), HandCanonicalizer.index(otherHand));
+        }
+    }
+
+    @Test
+    public void handsOfOneClassHaveEqualStrength() {
+        int[] cards = new int[5];
+        int[] representative = new int[5];
+        for (int i = 0; i < EquityTable.HAND_COUNT; i++) {
+            EquityTable.cards(i, cards);
+            long hand = mask(cards);
+            cardsOf(HandCanonicalizer.representative(HandCanonicalizer.index(hand)), representative);
+            assertEquals(HandEvaluator.score(cards), HandEvaluator.score(representative));
+        }
+    }
+
+    private static long mask(int[] cards) {
+        long mask = 0;
+        for (int card : cards) mask |= 1L << card;
+        return mask;
+    }
+
+    private static void cardsOf(long mask, int[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package fun.adun.pokerapp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Правила оценки руки: число рук каждой категории и порядок сравнения.
+ */
+public class HandEvaluatorTest {
+
+    // cardId = масть * 13 + ранг, туз — ранг 0
+    private static int card(int suit, int rank) {
+        return suit * 13 + rank;
+    }
+
+    @Test
+    public void categoryCountsMatchGameRules() {
+        long[] counts = new long[HandEvaluator.ROYAL_FLUSH + 1];
+        for (int a = 0; a < 52; a++)
+            for (int b = a + 1; b < 52; b++)
+                for (int c = b + 1; c < 52; c++)
+                    for (int d = c + 1; d < 52; d++)
+                        for (int e = d + 1; e < 52; e++)
+                            counts[HandEvaluator.category(HandEvaluator.score(a, b, c, d, e))]++;
+
+        // В этой игре стритом считается и A-2-3-4-K, а A-10-J-Q-K разных мастей — старшая карта
+        assertEquals(4, counts[HandEvaluator.ROYAL_FLUSH]);
+        assertEquals(40, counts[HandEvaluator.STRAIGHT_FLUSH]);
+        assertEquals(624, counts[HandEvaluator.FOUR_OF_A_KIND]);
+        assertEquals(3744, counts[HandEvaluator.FULL_HOUSE]);
+        assertEquals(5104, counts[HandEvaluator.FLUSH]);
+        assertEquals(10200, counts[HandEvaluator.STRAIGHT]);
+        assertEquals(54912, counts[HandEvaluator.THREE_OF_A_KIND]);
+        assertEquals(123552, counts[HandEvaluator.TWO_PAIRS]);
+        assertEquals(1098240, counts[HandEvaluator.PAIR]);
+        assertEquals(1302540, counts[HandEvaluator.HIGH_CARD]);
+    }
+
+    @Test
+    public void specialRankSets() {
+        int royal = HandEvaluator.score(card(0, 0), card(0, 9), card(0, 10), card(0, 11), card(0, 12));
+        assertEquals(HandEvaluator.ROYAL_FLUSH, HandEvaluator.category(royal));
+        int broadway = HandEvaluator.score(card(1, 0), card(0, 9), card(0, 10), card(0, 11), card(0, 12));
+        assertEquals(HandEvaluator.HIGH_CARD, HandEvaluator.category(broadway));
+        int wheelKing = HandEvaluator.score(card(1, 0), card(0, 1), card(0, 2), card(0, 3), card(0, 12));
+        assertEquals(HandEvaluator.STRAIGHT, HandEvaluator.category(wheelKing));
+        int wheel = HandEvaluator.score(card(1, 0), card(0, 1), card(0, 2), card(0, 3), card(0, 4));
+        assertEquals(HandEvaluator.STRAIGHT, HandEvaluator.category(wheel));
+    }
+
+    @Test
+    public void overloadsAndCardOrderAgree() {
+        int[] hand = {card(2, 5), card(0, 5), card(3, 12), card(1, 0), card(0, 7)};
+        int score = HandEvaluator.score(hand);
+        assertEquals(score, HandEvaluator.score(Arrays.asList(hand[4], hand[3], hand[2], hand[1], hand[0])));
+        assertEquals(score, HandEvaluator.score(hand[1], hand[0], hand[4], hand[2], hand[3]));
+    }
+
+    @Test
+    public void higherCategoryAndKickersWin() {
+        // Пара шестёрок с королём против пары шестёрок с восьмёркой: туз младший
+        int kingKicker = HandEvaluator.score(card(2, 5), card(0, 5), card(3, 12), card(1, 0), card(0, 7));
+        int eightKicker = HandEvaluator.score(card(1, 5), card(3, 5), card(2, 7), card(2, 0), card(0, 3));
+        assertTrue(kingKicker > eightKicker);
+
+        int twoPairs = HandEvaluator.score(card(0, 1), card(1, 1), card(0, 2), card(1, 2), card(2, 3));
+        assertTrue(twoPairs > kingKicker);
+
+        int sameTwoPairs = HandEvaluator.score(card(2, 1), card(3, 1), card(2, 2), card(3, 2), card(3, 3));
+        assertEquals(twoPairs, sameTwoPairs);
+    }
+}
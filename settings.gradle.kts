@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "PokerApp"
 include(":app")
+include(":core")
+include(":tools")
@@ -0,0 +1,31 @@
+plugins {
+    java
+}
+
+// Инструменты вне APK: генератор таблиц шансов, который запускается при сборке app,
+// и турнир стратегий компьютера
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    implementation(project(":core"))
+    testImplementation(libs.junit)
+}
+
+// Турнир стратегий по таблице шансов из сборки app (app/build/generated/equityAssets/hand_equity.bin)
+tasks.register<JavaExec>("strategyTournament") {
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("fun.adun.pokerapp.StrategyTournament")
+}
+
+// Стоимость HandCanonicalizer.index против GameActivity.evaluateHand
+tasks.register<JavaExec>("canonicalizerBenchmark") {
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("fun.adun.pokerapp.CanonicalizerBenchmark")
+}
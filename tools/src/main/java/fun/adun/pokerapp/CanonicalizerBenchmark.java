@@ -0,0 +1,206 @@
+package fun.adun.pokerapp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Стоимость канонизации по мастям (HandCanonicalizer.index) против определения комбинации
+// в игре (GameActivity.evaluateHand) и против HandEvaluator.score. Руки одни и те же,
+// случайные с постоянным зерном; для каждого способа берётся лучший из RUNS замеров.
+//
+// Инструмент из tools, в APK и в модульные тесты не входит:
+// gradlew :tools:canonicalizerBenchmark
+public final class CanonicalizerBenchmark {
+
+    private static final int HANDS = 1 << 16;
+    private static final int WARMUP_RUNS = 20;
+    private static final int RUNS = 50;
+    private static final long SEED = 2;
+
+    private static final int HIGH_CARD = 1;
+    private static final int PAIR = 2;
+    private static final int TWO_PAIRS = 3;
+    private static final int THREE_OF_A_KIND = 4;
+    private static final int STRAIGHT = 5;
+    private static final int FLUSH = 6;
+    private static final int FULL_HOUSE = 7;
+    private static final int FOUR_OF_A_KIND = 8;
+    private static final int STRAIGHT_FLUSH = 9;
+    private static final int ROYAL_FLUSH = 10;
+
+    private CanonicalizerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(SEED);
+        long[] masks = new long[HANDS];
+        int[][] cards = new int[HANDS][];
+        List<List<Integer>> hands = new ArrayList<>();
+        List<Integer> deck = new ArrayList<>();
+        for (int i = 0; i < 52; i++) deck.add(i);
+        for (int i = 0; i < HANDS; i++) {
+            Collections.shuffle(deck, random);
+            List<Integer> hand = new ArrayList<>(deck.subList(0, 5));
+            hands.add(hand);
+            cards[i] = new int[5];
+            for (int j = 0; j < 5; j++) {
+                cards[i][j] = hand.get(j);
+                masks[i] |= 1L << hand.get(j);
+            }
+        }
+
+        long sink = 0;
+        long canonicalNanos = Long.MAX_VALUE;
+        long scoreNanos = Long.MAX_VALUE;
+        long evaluateNanos = Long.MAX_VALUE;
+        for (int run = 0; run < WARMUP_RUNS + RUNS; run++) {
+            long start = System.nanoTime();
+            for (long mask : masks) {
+                sink += HandCanonicalizer.index(mask);
+            }
+            long canonical = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int[] hand : cards) {
+                sink += HandEvaluator.score(hand);
+            }
+            long score = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (List<Integer> hand : hands) {
+                sink += evaluateHand(hand);
+            }
+            long evaluate = System.nanoTime() - start;
+
+            if (run >= WARMUP_RUNS) {
+                canonicalNanos = Math.min(canonicalNanos, canonical);
+                scoreNanos = Math.min(scoreNanos, score);
+                evaluateNanos = Math.min(evaluateNanos, evaluate);
+            }
+        }
+
+        System.out.printf("Рук: %d, лучший из %d замеров, нс на руку%n", HANDS, RUNS);
+        System.out.printf("%-30s %8.1f%n", "HandCanonicalizer.index", (double) canonicalNanos / HANDS);
+        System.out.printf("%-30s %8.1f%n", "HandEvaluator.score", (double) scoreNanos / HANDS);
+        System.out.printf("%-30s %8.1f%n", "GameActivity.evaluateHand", (double) evaluateNanos / HANDS);
+        // Сумма выводится, чтобы JIT не выбросил измеряемые циклы
+        System.out.printf("(контрольная сумма %d)%n", sink);
+    }
+
+    // Копия GameActivity.evaluateHand и её проверок без изменений: активити в tools недоступна
+    private static int evaluateHand(List<Integer> hand) {
+        if (isRoyalFlush(hand)) return ROYAL_FLUSH;
+        if (isStraightFlush(hand)) return STRAIGHT_FLUSH;
+        if (isFourOfAKind(hand)) return FOUR_OF_A_KIND;
+        if (isFullHouse(hand)) return FULL_HOUSE;
+        if (isFlush(hand)) return FLUSH;
+        if (isStraight(hand)) return STRAIGHT;
+        if (isThreeOfAKind(hand)) return THREE_OF_A_KIND;
+        if (isTwoPairs(hand)) return TWO_PAIRS;
+        if (isPair(hand)) return PAIR;
+        return HIGH_CARD;
+    }
+
+    private static boolean isRoyalFlush(List<Integer> hand) {
+        if (!isFlush(hand)) return false;
+        List<Integer> ranks = getSortedRanks(hand);
+        return ranks.contains(0) && ranks.contains(9) && ranks.contains(10)
+                && ranks.contains(11) && ranks.contains(12);
+    }
+
+    private static boolean isStraightFlush(List<Integer> hand) {
+        return isFlush(hand) && isStraight(hand);
+    }
+
+    private static boolean isFourOfAKind(List<Integer> hand) {
+        int[] ranks = new int[13];
+        for (int card : hand) {
+            ranks[card % 13]++;
+            if (ranks[card % 13] == 4) return true;
+        }
+        return false;
+    }
+
+    private static boolean isFullHouse(List<Integer> hand) {
+        int[] ranks = new int[13];
+        boolean hasThree = false;
+        boolean hasTwo = false;
+
+        for (int card : hand) {
+            ranks[card % 13]++;
+        }
+
+        for (int count : ranks) {
+            if (count == 3) hasThree = true;
+            if (count == 2) hasTwo = true;
+        }
+
+        return hasThree && hasTwo;
+    }
+
+    private static boolean isFlush(List<Integer> hand) {
+        int suit = hand.get(0) / 13;
+        for (int card : hand) {
+            if (card / 13 != suit) return false;
+        }
+        return true;
+    }
+
+    private static boolean isStraight(List<Integer> hand) {
+        List<Integer> ranks = getSortedRanks(hand);
+
+        for (int i = 0; i < ranks.size() - 1; i++) {
+            if (ranks.get(i + 1) - ranks.get(i) != 1) {
+                if (ranks.contains(0) && ranks.contains(1) && ranks.contains(2)
+                        && ranks.contains(3) && ranks.contains(12)) {
+                    return true;
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isThreeOfAKind(List<Integer> hand) {
+        int[] ranks = new int[13];
+        for (int card : hand) {
+            ranks[card % 13]++;
+            if (ranks[card % 13] == 3) return true;
+        }
+        return false;
+    }
+
+    private static boolean isTwoPairs(List<Integer> hand) {
+        int pairs = 0;
+        int[] ranks = new int[13];
+
+        for (int card : hand) {
+            ranks[card % 13]++;
+        }
+
+        for (int count : ranks) {
+            if (count == 2) pairs++;
+        }
+
+        return pairs >= 2;
+    }
+
+    private static boolean isPair(List<Integer> hand) {
+        int[] ranks = new int[13];
+        for (int card : hand) {
+            ranks[card % 13]++;
+            if (ranks[card % 13] == 2) return true;
+        }
+        return false;
+    }
+
+    private static List<Integer> getSortedRanks(List<Integer> hand) {
+        List<Integer> ranks = new ArrayList<>();
+        for (int card : hand) {
+            ranks.add(card % 13);
+        }
+        Collections.sort(ranks);
+        return ranks;
+    }
+}
@@ -0,0 +1,144 @@
+package fun.adun.pokerapp;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Генератор таблицы шансов каждой руки против случайной руки из оставшихся 47 карт.
+// Вместо перебора всех 4*10^12 вскрытий руки сортируются по силе, а число
+// непересекающихся более слабых рук считается по формуле включений-исключений
+// через суммы по подмножествам карт. Так же считаются шансы против взвешенного
+// диапазона рук соперника. Весь расчёт занимает секунды.
+//
+// Запускается при сборке приложения (задача generateEquityTables в app) и пишет таблицы
+// в папку assets: java fun.adun.pokerapp.EquityTableGenerator <папка>
+public final class EquityTableGenerator {
+
+    private EquityTableGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Использование: EquityTableGenerator <папка для таблиц>");
+            System.exit(1);
+        }
+        File dir = new File(args[0]);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Не удалось создать папку: " + dir);
+        }
+        long start = System.currentTimeMillis();
+        short[] uniform = generate();
+        write(uniform, new File(dir, EquityTable.FILE_NAME));
+        // Своя таблица для диапазона каждого правила компьютера
+        EquityTable uniformTable = new EquityTable(uniform);
+        for (int policy = 0; policy < ComputerPolicy.COUNT; policy++) {
+            float[] weights = ComputerPolicy.rangeWeights(policy, uniformTable);
+            write(generate(weights), new File(dir, ComputerPolicy.rangeFileName(policy)));
+        }
+        System.out.printf("Таблицы построены за %d мс: %s%n", System.currentTimeMillis() - start, dir);
+    }
+
+    static short[] generate() {
+        return generate(null);
+    }
+
+    // Шансы против руки соперника, взвешенной по классу руки (classWeights[номер класса]).
+    // null — все руки соперника равновероятны.
+    // Порядок рук делится на отрезки по числу потоков, как в RangeEquity: сначала каждый
+    // отрезок суммирует веса своих рук, затем префиксные суммы дают каждому отрезку
+    // начальное состояние, и отрезки проходятся параллельно.
+    static short[] generate(float[] classWeights) {
+        HandOrder order = HandOrder.get();
+        int[] tileGroups = order.tiles(ForkJoinPool.commonPool().getParallelism());
+        int tileCount = tileGroups.length - 1;
+
+        SubsetSums[] sums = new SubsetSums[tileCount];
+        IntStream.range(0, tileCount).parallel().forEach(tile -> {
+            SubsetSums tileSums = new SubsetSums();
+            int[] cards = new int[5];
+            for (int i = order.groupStarts[tileGroups[tile]]; i < order.groupStarts[tileGroups[tile + 1]]; i++) {
+                EquityTable.cards(order.hands[i], cards);
+                tileSums.add(cards, weight(cards, classWeights));
+            }
+            sums[tile] = tileSums;
+        });
+        // Вес всех непересекающихся рук; для равновероятных это ровно C(47, 5)
+        SubsetSums all = SubsetSums.exclusivePrefix(sums);
+
+        short[] table = new short[HandCanonicalizer.CLASS_COUNT];
+        // Изоморфные руки равны по силе и попадают в одну группу, а группа — в один отрезок,
+        // поэтому каждый класс пишет только один поток
+        IntStream.range(0, tileCount).parallel().forEach(tile ->
+                sweep(order, tileGroups[tile], tileGroups[tile + 1], classWeights, sums[tile], all, table));
+        return table;
+    }
+
+    // Проход по группам [fromGroup, toGroup) от начального состояния processed:
+    // суммарного веса уже пройденных рук, содержащих данную карту, пару, тройку, четвёрку карт
+    private static void sweep(HandOrder order, int fromGroup, int toGroup, float[] classWeights,
+                              SubsetSums processed, SubsetSums all, short[] table) {
+        int[] cards = new int[5];
+        double[] below = new double[64];
+        for (int group = fromGroup; group < toGroup; group++) {
+            int groupStart = order.groupStarts[group];
+            int groupEnd = order.groupStarts[group + 1];
+            if (below.length < groupEnd - groupStart) {
+                below = new double[groupEnd - groupStart];
+            }
+
+            // Непересекающиеся руки строго слабее
+            for (int g = groupStart; g < groupEnd; g++) {
+                EquityTable.cards(order.hands[g], cards);
+                below[g - groupStart] = processed.disjoint(cards);
+            }
+            for (int g = groupStart; g < groupEnd; g++) {
+                EquityTable.cards(order.hands[g], cards);
+                processed.add(cards, weight(cards, classWeights));
+            }
+            // Непересекающиеся руки не сильнее: разница с предыдущим — ничьи.
+            // Сама рука теперь тоже пройдена, её вес вычитается.
+            for (int g = groupStart; g < groupEnd; g++) {
+                EquityTable.cards(order.hands[g], cards);
+                double self = weight(cards, classWeights);
+                double belowOrEqual = processed.disjoint(cards) - self;
+                double total = all.disjoint(cards) - self;
+                double equity = total <= 0 ? 0.5 : (below[g - groupStart] + belowOrEqual) / (2.0 * total);
+                // У изоморфных рук шансы одинаковы, пишется одно значение на класс
+                table[HandCanonicalizer.index(cards[0], cards[1], cards[2], cards[3], cards[4])] =
+                        (short) Math.round(equity * EquityTable.SCALE);
+            }
+        }
+    }
+
+    private static double weight(int[] cards, float[] classWeights) {
+        if (classWeights == null) return 1;
+        return classWeights[HandCanonicalizer.index(cards[0], cards[1], cards[2], cards[3], cards[4])];
+    }
+
+    // Запись через временный файл, чтобы прерванный запуск не оставил битую таблицу
+    static void write(short[] table, File output) throws IOException {
+        File temp = new File(output.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(temp));
+        try {
+            byte[] bytes = new byte[table.length * 2];
+            for (int i = 0; i < table.length; i++) {
+                bytes[2 * i] = (byte) (table[i] >> 8);
+                bytes[2 * i + 1] = (byte) table[i];
+            }
+            out.writeInt(EquityTable.MAGIC);
+            out.writeInt(table.length);
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+        // renameTo на Windows не заменяет существующий файл, а таблицы перезаписываются
+        // при каждом запуске в тот же каталог. Ошибка переноса прерывает сборку.
+        Files.move(temp.toPath(), output.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
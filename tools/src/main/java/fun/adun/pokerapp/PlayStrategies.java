@@ -0,0 +1,105 @@
+package fun.adun.pokerapp;
+
+// Стратегии для турнира: правила компьютера из игры и простые альтернативы
+final class PlayStrategies {
+
+    private PlayStrategies() {
+    }
+
+    // Прежнее правило компьютера: вероятность игры по комбинации
+    static PlayStrategy categoryThresholds() {
+        return new PlayStrategy() {
+            @Override
+            public String name() {
+                return "Пороги по комбинациям";
+            }
+
+            @Override
+            public boolean plays(int category, float equity, boolean facingBet, float draw, float noise) {
+                return draw < ComputerPolicy.categoryPlayProbability(category);
+            }
+        };
+    }
+
+    // Текущее правило компьютера: играет с вероятностью, равной шансам руки
+    static PlayStrategy proportional() {
+        return new PlayStrategy() {
+            @Override
+            public String name() {
+                return "Пропорционально шансам";
+            }
+
+            @Override
+            public boolean plays(int category, float equity, boolean facingBet, float draw, float noise) {
+                return draw < ComputerPolicy.playProbability(equity);
+            }
+        };
+    }
+
+    // То же, но шансы оценены по samples случайным раздачам, как у AnytimeDecision
+    // с ограниченным бюджетом: к точным шансам добавляется ошибка такой оценки
+    static PlayStrategy noisyProportional(int samples) {
+        return new PlayStrategy() {
+            @Override
+            public String name() {
+                return "Пропорционально шансам, " + samples + " раздач";
+            }
+
+            @Override
+            public boolean plays(int category, float equity, boolean facingBet, float draw, float noise) {
+                return draw < ComputerPolicy.playProbability(estimate(equity, noise, samples));
+            }
+        };
+    }
+
+    // Правило уровней 3 и 4: играет, если оценка шансов по samples раздачам не ниже порога
+    static PlayStrategy noisyThreshold(int samples) {
+        return new PlayStrategy() {
+            @Override
+            public String name() {
+                return "Порог шансов 0.5, " + samples + " раздач";
+            }
+
+            @Override
+            public boolean plays(int category, float equity, boolean facingBet, float draw, float noise) {
+                return draw < ComputerPolicy.playProbability(ComputerPolicy.THRESHOLD, category,
+                        estimate(equity, noise, samples));
+            }
+        };
+    }
+
+    // Точные шансы с ошибкой оценки Монте-Карло по samples раздачам
+    private static float estimate(float equity, float noise, int samples) {
+        double error = Math.sqrt(equity * (1 - equity) / samples);
+        return (float) Math.min(1, Math.max(0, equity + noise * error));
+    }
+
+    static PlayStrategy alwaysPlay() {
+        return new PlayStrategy() {
+            @Override
+            public String name() {
+                return "Всегда играть";
+            }
+
+            @Override
+            public boolean plays(int category, float equity, boolean facingBet, float draw, float noise) {
+                return true;
+            }
+        };
+    }
+
+    // Играет, если шансы не ниже порога: свой порог для первого хода и для ответа на ставку
+    static PlayStrategy equityThreshold(String name, float openThreshold, float callThreshold) {
+        return new PlayStrategy() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public boolean plays(int category, float equity, boolean facingBet, float draw, float noise) {
+                return equity >= (facingBet ? callThreshold : openThreshold);
+            }
+        };
+    }
+}
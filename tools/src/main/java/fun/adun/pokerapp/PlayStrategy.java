@@ -0,0 +1,14 @@
+package fun.adun.pokerapp;
+
+// Стратегия «играть или сбросить» для турнира стратегий (StrategyTournament).
+// Решение зависит только от своей руки: комбинации, шансов против случайной руки
+// и случайных чисел, выбранных заранее для раздачи, чтобы в зеркальной раздаче
+// другая стратегия получала те же самые числа.
+interface PlayStrategy {
+
+    String name();
+
+    // category — HandEvaluator.HIGH_CARD ... ROYAL_FLUSH; facingBet — соперник уже сделал ставку;
+    // draw — равномерное из [0, 1); noise — стандартное нормальное
+    boolean plays(int category, float equity, boolean facingBet, float draw, float noise);
+}
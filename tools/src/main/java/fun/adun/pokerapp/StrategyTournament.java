@@ -0,0 +1,405 @@
+package fun.adun.pokerapp;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Турнир стратегий компьютера каждая с каждой.
+// Раздача: оба игрока ставят анте, первый играет (ставка) или сбрасывает и теряет анте,
+// второй отвечает или сбрасывает; при вскрытии банк забирает сильнейшая рука.
+// Каждая раздача играется дважды с обменом рук и очерёдности (дубликат), поэтому везение
+// в картах взаимно погашается. Раздачи готовятся пачками и общие для всех пар стратегий.
+// Пары считаются параллельно в пуле с перехватом работы. Победитель матча из MATCH_SIZE
+// раздач — тот, кто выиграл больше фишек; после каждой пачки рейтинги Брэдли-Терри
+// уточняются по накопленным итогам матчей и пересчитываются в шкалу Эло.
+//
+// Инструмент из tools, в APK не входит:
+// gradlew :tools:strategyTournament --args="<файл таблицы> [раздач на пару]"
+public final class StrategyTournament {
+
+    static final int ANTE = 1;
+    static final int BET = 1;
+
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final int CHUNK_SIZE = 1 << 12;
+    private static final int MATCH_SIZE = 1 << 10;
+    private static final int DEFAULT_DEALS = 1000000;
+    // Шаг перебора порогов обученной стратегии
+    private static final float LEARNING_STEP = 0.02f;
+    private static final int LEARNING_SWEEPS = 3;
+    private static final int RATING_ITERATIONS = 20;
+    private static final int FINAL_RATING_ITERATIONS = 2000;
+
+    // Итоги стратегий, места по убыванию рейтинга
+    static final class Standing {
+        final PlayStrategy strategy;
+        final double elo;
+        // Средний выигрыш фишек за руку против всех соперников
+        final double chipsPerHand;
+        // Итоги матчей против всех соперников
+        final long wins;
+        final long draws;
+        final long losses;
+
+        Standing(PlayStrategy strategy, double elo, double chipsPerHand, long wins, long draws, long losses) {
+            this.strategy = strategy;
+            this.elo = elo;
+            this.chipsPerHand = chipsPerHand;
+            this.wins = wins;
+            this.draws = draws;
+            this.losses = losses;
+        }
+    }
+
+    static final class Report {
+        final List<Standing> standings;
+        // chipsPerHand[i][j] — выигрыш стратегии i за руку против стратегии j (в исходном порядке)
+        final double[][] chipsPerHand;
+        final List<PlayStrategy> strategies;
+        final long dealsPerPairing;
+
+        Report(List<Standing> standings, double[][] chipsPerHand, List<PlayStrategy> strategies,
+               long dealsPerPairing) {
+            this.standings = standings;
+            this.chipsPerHand = chipsPerHand;
+            this.strategies = strategies;
+            this.dealsPerPairing = dealsPerPairing;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("Раздач на пару: %d (рук: %d), матч — %d раздач%n",
+                    dealsPerPairing, 2 * dealsPerPairing, MATCH_SIZE));
+            out.append(String.format("%-3s %-36s %7s %9s %12s %12s %12s%n",
+                    "#", "Стратегия", "Эло", "Фишек/рука", "Победы", "Ничьи", "Поражения"));
+            for (int i = 0; i < standings.size(); i++) {
+                Standing standing = standings.get(i);
+                out.append(String.format("%-3d %-36s %7.0f %+9.4f %12d %12d %12d%n",
+                        i + 1, standing.strategy.name(), standing.elo, standing.chipsPerHand,
+                        standing.wins, standing.draws, standing.losses));
+            }
+            out.append(String.format("%nФишек за руку, строка против столбца:%n"));
+            for (int i = 0; i < strategies.size(); i++) {
+                out.append(String.format("%-3d %-36s", i + 1, strategies.get(i).name()));
+                for (int j = 0; j < strategies.size(); j++) {
+                    out.append(i == j ? String.format("%9s", "—") : String.format("%+9.4f", chipsPerHand[i][j]));
+                }
+                out.append(String.format("%n"));
+            }
+            return out.toString();
+        }
+    }
+
+    private final EquityTable equityTable;
+    private final ForkJoinPool pool;
+
+    StrategyTournament(EquityTable equityTable, ForkJoinPool pool) {
+        this.equityTable = equityTable;
+        this.pool = pool;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Использование: StrategyTournament <файл таблицы> [раздач на пару]");
+            System.exit(1);
+        }
+        long deals = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_DEALS;
+        long start = System.currentTimeMillis();
+        // Таблица из сборки приложения: app/build/generated/equityAssets/hand_equity.bin
+        EquityTable table;
+        try (InputStream in = new FileInputStream(args[0])) {
+            table = EquityTable.read(in);
+        }
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        try {
+            StrategyTournament tournament = new StrategyTournament(table, pool);
+            List<PlayStrategy> strategies = defaultField();
+            strategies.add(tournament.learn(strategies, 1));
+            Report report = tournament.run(strategies, deals, 2);
+            System.out.print(report);
+        } finally {
+            pool.shutdown();
+        }
+        System.out.printf("Готово за %d мс%n", System.currentTimeMillis() - start);
+    }
+
+    // Правила компьютера из игры, включая уровни сложности с ограниченным расчётом, и простые альтернативы
+    static List<PlayStrategy> defaultField() {
+        List<PlayStrategy> strategies = new ArrayList<>();
+        strategies.add(PlayStrategies.categoryThresholds());
+        strategies.add(PlayStrategies.proportional());
+        strategies.add(PlayStrategies.noisyProportional(256));
+        strategies.add(PlayStrategies.noisyProportional(8192));
+        strategies.add(PlayStrategies.noisyThreshold(256));
+        strategies.add(PlayStrategies.noisyThreshold(8192));
+        strategies.add(PlayStrategies.alwaysPlay());
+        strategies.add(PlayStrategies.equityThreshold("Шансы не ниже 0.5", 0.5f, 0.5f));
+        return strategies;
+    }
+
+    // Турнир каждая с каждой на deals дубликатных раздачах для каждой пары
+    Report run(List<PlayStrategy> strategies, long deals, long seed) throws InterruptedException {
+        int n = strategies.size();
+        // Фишки и исходы матчей для пары (i, j), с точки зрения i
+        long[][] chips = new long[n][n];
+        long[][] wins = new long[n][n];
+        long[][] draws = new long[n][n];
+        double[] strengths = new double[n];
+        Arrays.fill(strengths, 1);
+
+        long played = 0;
+        for (long block = 0; played < deals; block++) {
+            int size = (int) Math.min(BLOCK_SIZE, deals - played);
+            Deals dealt = deal(size, seed * 1000003L + block);
+
+            List<Callable<long[]>> matches = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    PlayStrategy a = strategies.get(i);
+                    PlayStrategy b = strategies.get(j);
+                    matches.add(() -> match(a, b, dealt));
+                }
+            }
+            List<Future<long[]>> results = pool.invokeAll(matches);
+
+            // Итоги пачки применяются в постоянном порядке, поэтому рейтинги воспроизводимы
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    long[] result = get(results.get(k++));
+                    chips[i][j] += result[0];
+                    chips[j][i] -= result[0];
+                    wins[i][j] += result[1];
+                    wins[j][i] += result[3];
+                    draws[i][j] += result[2];
+                    draws[j][i] += result[2];
+                }
+            }
+            played += size;
+            updateStrengths(strengths, wins, draws, RATING_ITERATIONS);
+        }
+        updateStrengths(strengths, wins, draws, FINAL_RATING_ITERATIONS);
+
+        double[] elo = toElo(strengths);
+        double[][] chipsPerHand = new double[n][n];
+        List<Standing> standings = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            long totalChips = 0;
+            long totalWins = 0;
+            long totalDraws = 0;
+            long totalLosses = 0;
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                // В дубликате две руки на раздачу
+                chipsPerHand[i][j] = (double) chips[i][j] / (2 * played);
+                totalChips += chips[i][j];
+                totalWins += wins[i][j];
+                totalDraws += draws[i][j];
+                totalLosses += wins[j][i];
+            }
+            standings.add(new Standing(strategies.get(i), elo[i], (double) totalChips / (2 * (n - 1) * played),
+                    totalWins, totalDraws, totalLosses));
+        }
+        standings.sort((x, y) -> Double.compare(y.elo, x.elo));
+        return new Report(standings, chipsPerHand, strategies, played);
+    }
+
+    // Стратегия с порогами шансов, подобранными против данных соперников на отдельных раздачах
+    PlayStrategy learn(List<PlayStrategy> field, long seed) throws InterruptedException {
+        Deals training = deal(BLOCK_SIZE, -seed);
+        float open = 0.5f;
+        float call = 0.5f;
+        int steps = Math.round(1 / LEARNING_STEP);
+        for (int sweep = 0; sweep < LEARNING_SWEEPS; sweep++) {
+            for (int coordinate = 0; coordinate < 2; coordinate++) {
+                List<Callable<Long>> candidates = new ArrayList<>();
+                for (int s = 0; s <= steps; s++) {
+                    float value = s * LEARNING_STEP;
+                    PlayStrategy candidate = coordinate == 0
+                            ? PlayStrategies.equityThreshold("", value, call)
+                            : PlayStrategies.equityThreshold("", open, value);
+                    candidates.add(() -> {
+                        long total = 0;
+                        for (PlayStrategy opponent : field) {
+                            total += match(candidate, opponent, training)[0];
+                        }
+                        return total;
+                    });
+                }
+                List<Future<Long>> results = pool.invokeAll(candidates);
+                long best = Long.MIN_VALUE;
+                int bestStep = 0;
+                for (int s = 0; s <= steps; s++) {
+                    long total = get(results.get(s));
+                    if (total > best) {
+                        best = total;
+                        bestStep = s;
+                    }
+                }
+                if (coordinate == 0) {
+                    open = bestStep * LEARNING_STEP;
+                } else {
+                    call = bestStep * LEARNING_STEP;
+                }
+            }
+        }
+        return PlayStrategies.equityThreshold(
+                String.format("Обученная (%.2f / %.2f)", open, call), open, call);
+    }
+
+    // Руки 2d и 2d + 1 — пара рук раздачи d
+    static final class Deals {
+        final int size;
+        final int[] scores;
+        final int[] categories;
+        final float[] equities;
+        final float[] draws;
+        final float[] noises;
+
+        Deals(int size) {
+            this.size = size;
+            scores = new int[2 * size];
+            categories = new int[2 * size];
+            equities = new float[2 * size];
+            draws = new float[2 * size];
+            noises = new float[2 * size];
+        }
+    }
+
+    // Пачка раздач, кусками параллельно; у каждого куска свой генератор, поэтому результат
+    // не зависит от числа потоков
+    Deals deal(int size, long seed) throws InterruptedException {
+        Deals deals = new Deals(size);
+        List<Callable<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < size; from += CHUNK_SIZE) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(size, from + CHUNK_SIZE);
+            SplittableRandom random = new SplittableRandom(seed * 31 + from);
+            chunks.add(() -> {
+                dealChunk(deals, chunkFrom, chunkTo, random);
+                return null;
+            });
+        }
+        for (Future<Void> chunk : pool.invokeAll(chunks)) {
+            get(chunk);
+        }
+        return deals;
+    }
+
+    private void dealChunk(Deals deals, int from, int to, SplittableRandom random) {
+        int[] deck = new int[52];
+        for (int i = 0; i < 52; i++) {
+            deck[i] = i;
+        }
+        for (int d = from; d < to; d++) {
+            for (int i = 0; i < 10; i++) {
+                int k = i + random.nextInt(52 - i);
+                int card = deck[k];
+                deck[k] = deck[i];
+                deck[i] = card;
+            }
+            for (int h = 0; h < 2; h++) {
+                int index = 2 * d + h;
+                int o = 5 * h;
+                int score = HandEvaluator.score(deck[o], deck[o + 1], deck[o + 2], deck[o + 3], deck[o + 4]);
+                deals.scores[index] = score;
+                deals.categories[index] = HandEvaluator.category(score);
+                deals.equities[index] = equityTable.equity(deck[o], deck[o + 1], deck[o + 2], deck[o + 3], deck[o + 4]);
+                deals.draws[index] = (float) random.nextDouble();
+                // Нормальное распределение по Боксу-Мюллеру
+                double u = 1 - random.nextDouble();
+                deals.noises[index] = (float) (Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble()));
+            }
+        }
+    }
+
+    // Матчи на всех раздачах пачки: {фишки a, победы a, ничьи, победы b}
+    static long[] match(PlayStrategy a, PlayStrategy b, Deals deals) {
+        long chips = 0;
+        long wins = 0;
+        long draws = 0;
+        long losses = 0;
+        for (int from = 0; from < deals.size; from += MATCH_SIZE) {
+            long matchChips = 0;
+            for (int d = from; d < Math.min(deals.size, from + MATCH_SIZE); d++) {
+                // a с первой рукой ходит первым, затем b с той же рукой ходит первым против a
+                matchChips += hand(a, b, deals, 2 * d, 2 * d + 1) - hand(b, a, deals, 2 * d, 2 * d + 1);
+            }
+            chips += matchChips;
+            if (matchChips > 0) {
+                wins++;
+            } else if (matchChips == 0) {
+                draws++;
+            } else {
+                losses++;
+            }
+        }
+        return new long[]{chips, wins, draws, losses};
+    }
+
+    // Выигрыш первого игрока в фишках
+    private static int hand(PlayStrategy first, PlayStrategy second, Deals deals, int firstHand, int secondHand) {
+        if (!first.plays(deals.categories[firstHand], deals.equities[firstHand], false,
+                deals.draws[firstHand], deals.noises[firstHand])) {
+            return -ANTE;
+        }
+        if (!second.plays(deals.categories[secondHand], deals.equities[secondHand], true,
+                deals.draws[secondHand], deals.noises[secondHand])) {
+            return ANTE;
+        }
+        return Integer.signum(Integer.compare(deals.scores[firstHand], deals.scores[secondHand])) * (ANTE + BET);
+    }
+
+    // Итерации MM-алгоритма для модели Брэдли-Терри, ничья — половина победы.
+    // Каждой паре добавляется одна условная ничья, чтобы сила не уходила в ноль.
+    static void updateStrengths(double[] strengths, long[][] wins, long[][] draws, int iterations) {
+        int n = strengths.length;
+        for (int it = 0; it < iterations; it++) {
+            double[] next = new double[n];
+            double logSum = 0;
+            for (int i = 0; i < n; i++) {
+                double score = 0;
+                double denominator = 0;
+                for (int j = 0; j < n; j++) {
+                    if (i == j) continue;
+                    double games = wins[i][j] + wins[j][i] + draws[i][j] + 1;
+                    score += wins[i][j] + 0.5 * (draws[i][j] + 1);
+                    denominator += games / (strengths[i] + strengths[j]);
+                }
+                next[i] = score / denominator;
+                logSum += Math.log(next[i]);
+            }
+            // Нормировка: среднее логарифмов силы — ноль
+            double scale = Math.exp(logSum / n);
+            for (int i = 0; i < n; i++) {
+                strengths[i] = next[i] / scale;
+            }
+        }
+    }
+
+    // Эло: 400 пунктов — десятикратная разница силы, среднее — 1500
+    static double[] toElo(double[] strengths) {
+        double[] elo = new double[strengths.length];
+        for (int i = 0; i < strengths.length; i++) {
+            elo[i] = 1500 + 400 * Math.log10(strengths[i]);
+        }
+        return elo;
+    }
+
+    private static <T> T get(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
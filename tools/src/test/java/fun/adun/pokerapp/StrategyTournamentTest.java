@@ -0,0 +1,108 @@
+package fun.adun.pokerapp;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Дубликатные раздачи (обмен рук погашает везение), подгонка Брэдли-Терри и перевод силы в Эло.
+ */
+public class StrategyTournamentTest {
+
+    private static final int DEALS = 1 << 14;
+    private static final long SEED = 42;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final StrategyTournament tournament = new StrategyTournament(constantTable(0.5f), pool);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void duplicateMatchIsAntisymmetric() throws InterruptedException {
+        StrategyTournament.Deals deals = tournament.deal(DEALS, SEED);
+        PlayStrategy a = PlayStrategies.categoryThresholds();
+        PlayStrategy b = PlayStrategies.alwaysPlay();
+
+        long[] ab = StrategyTournament.match(a, b, deals);
+        long[] ba = StrategyTournament.match(b, a, deals);
+        assertNotEquals(0, ab[0]);
+        assertEquals(ab[0], -ba[0]);
+        assertEquals(ab[1], ba[3]);
+        assertEquals(ab[2], ba[2]);
+        assertEquals(ab[3], ba[1]);
+    }
+
+    @Test
+    public void selfMatchIsAllDraws() throws InterruptedException {
+        StrategyTournament.Deals deals = tournament.deal(DEALS, SEED);
+        PlayStrategy strategy = PlayStrategies.proportional();
+
+        // Обе стороны получают одни руки и одни случайные числа, поэтому каждый матч — ничья
+        long[] result = StrategyTournament.match(strategy, strategy, deals);
+        assertEquals(0, result[0]);
+        assertEquals(0, result[1]);
+        assertEquals(0, result[3]);
+        assertTrue(result[2] > 0);
+    }
+
+    @Test
+    public void dealsDoNotDependOnThreadCount() throws InterruptedException {
+        StrategyTournament.Deals parallel = tournament.deal(DEALS, SEED);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            StrategyTournament.Deals sequential = new StrategyTournament(constantTable(0.5f), single).deal(DEALS, SEED);
+            assertArrayEquals(parallel.scores, sequential.scores);
+            assertArrayEquals(parallel.draws, sequential.draws, 0);
+            assertArrayEquals(parallel.noises, sequential.noises, 0);
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    public void bradleyTerryFitMatchesWinShare() {
+        long[][] wins = {{0, 7500}, {2500, 0}};
+        long[][] draws = new long[2][2];
+        double[] strengths = {1, 1};
+        StrategyTournament.updateStrengths(strengths, wins, draws, 2000);
+
+        // С условной ничьей доля очков первой — 7500.5 из 10001, отношение сил — 7500.5 / 2500.5
+        assertEquals(7500.5 / 2500.5, strengths[0] / strengths[1], 1e-6);
+        assertEquals(1, strengths[0] * strengths[1], 1e-9);
+        double[] elo = StrategyTournament.toElo(strengths);
+        assertEquals(3000, elo[0] + elo[1], 1e-6);
+        assertEquals(400 * Math.log10(7500.5 / 2500.5), elo[0] - elo[1], 1e-4);
+    }
+
+    @Test
+    public void bradleyTerryCountsDrawAsHalfWin() {
+        long[][] wins = {{0, 0, 0}, {0, 0, 0}, {0, 0, 0}};
+        long[][] draws = {{0, 100, 100}, {100, 0, 100}, {100, 100, 0}};
+        double[] strengths = {1, 2, 4};
+        StrategyTournament.updateStrengths(strengths, wins, draws, 200);
+        for (double strength : strengths) {
+            assertEquals(1, strength, 1e-9);
+        }
+    }
+
+    @Test
+    public void eloScale() {
+        double[] elo = StrategyTournament.toElo(new double[]{10, 1, 0.1});
+        assertEquals(1900, elo[0], 1e-9);
+        assertEquals(1500, elo[1], 1e-9);
+        assertEquals(1100, elo[2], 1e-9);
+    }
+
+    private static EquityTable constantTable(float equity) {
+        short[] table = new short[HandCanonicalizer.CLASS_COUNT];
+        Arrays.fill(table, (short) Math.round(equity * EquityTable.SCALE));
+        return new EquityTable(table);
+    }
+}